@@ -0,0 +1,104 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load generator: a fixed number of clients each send one GET at a time for a
+ * fixed duration, after a warm-up that is not measured. Prints throughput and latency
+ * percentiles on one line so runs can be compared side by side.
+ *
+ * Usage: java LoadBenchmark.java <url> [concurrency=200] [durationSeconds=30] [warmupSeconds=10] [label]
+ * Needs only a JDK (17+); see compare-thread-models.sh for the platform vs virtual thread comparison.
+ */
+public class LoadBenchmark {
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage: java LoadBenchmark.java <url> [concurrency] [durationSeconds] [warmupSeconds] [label]");
+            System.exit(2);
+        }
+        URI uri = URI.create(args[0]);
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        String label = args.length > 4 ? args[4] : uri.toString();
+        
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        
+        long warmupEnd = System.nanoTime() + Duration.ofSeconds(warmupSeconds).toNanos();
+        long end = warmupEnd + Duration.ofSeconds(durationSeconds).toNanos();
+        long[][] latencies = new long[concurrency][];
+        int[] counts = new int[concurrency];
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        
+        for (int i = 0; i < concurrency; i++) {
+            int slot = i;
+            Thread worker = new Thread(() -> {
+                long[] samples = new long[1024];
+                int n = 0;
+                try {
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        boolean ok;
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            ok = response.statusCode() < 400;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        long finished = System.nanoTime();
+                        if (now < warmupEnd) {
+                            continue;
+                        }
+                        if (!ok) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (n == samples.length) {
+                            samples = Arrays.copyOf(samples, n * 2);
+                        }
+                        samples[n++] = finished - now;
+                    }
+                } finally {
+                    latencies[slot] = samples;
+                    counts[slot] = n;
+                    done.countDown();
+                }
+            }, "load-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+        
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int i = 0; i < concurrency; i++) {
+            System.arraycopy(latencies[i], 0, all, offset, counts[i]);
+            offset += counts[i];
+        }
+        Arrays.sort(all);
+        System.out.printf("%-10s requests=%d errors=%d throughput=%.1f req/s p50=%.1f ms p90=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                label, total, errors.get(), total / (double) durationSeconds,
+                percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99),
+                all.length > 0 ? all[all.length - 1] / 1e6 : 0.0);
+    }
+    
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
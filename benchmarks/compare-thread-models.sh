@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Runs one service twice against the same database, first on Tomcat's platform-thread pool and
+# then in virtual-thread mode, and drives the same JDBC-bound endpoint with LoadBenchmark.
+#
+# Usage: benchmarks/compare-thread-models.sh <service-dir> <path> [concurrency] [durationSeconds]
+#   e.g. benchmarks/compare-thread-models.sh table-service /api/tables/bookings/waiting 400 60
+#
+# Needs a Java 21 JDK on PATH, Maven, curl and the service's MySQL database. Both runs use the
+# same connection pool size (POOL_SIZE, default 50) and Tomcat limit (TOMCAT_THREADS, default 200),
+# so the only difference is the thread model. Seed realistic data before comparing.
+set -euo pipefail
+
+SERVICE_DIR=${1:?service directory, e.g. table-service}
+REQUEST_PATH=${2:?request path, e.g. /api/tables/bookings/waiting}
+CONCURRENCY=${3:-400}
+DURATION=${4:-60}
+WARMUP=${WARMUP:-15}
+POOL_SIZE=${POOL_SIZE:-50}
+TOMCAT_THREADS=${TOMCAT_THREADS:-200}
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+cd "$ROOT/$SERVICE_DIR"
+PORT=$(sed -n 's/^server\.port=//p' src/main/resources/application.properties)
+
+mvn -B -q -Pjava21 -DskipTests package
+JAR=$(ls target/*.jar | grep -v original | head -n 1)
+
+run() {
+    local label=$1 virtual=$2
+    java -jar "$JAR" \
+        --spring.threads.virtual.enabled="$virtual" \
+        --spring.jpa.show-sql=false \
+        --spring.datasource.hikari.maximum-pool-size="$POOL_SIZE" \
+        --server.tomcat.threads.max="$TOMCAT_THREADS" > "target/benchmark-$label.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" EXIT
+    until curl -s -o /dev/null "http://localhost:$PORT$REQUEST_PATH"; do
+        kill -0 "$pid" 2>/dev/null || { echo "$SERVICE_DIR failed to start, see target/benchmark-$label.log" >&2; exit 1; }
+        sleep 1
+    done
+    java "$ROOT/benchmarks/LoadBenchmark.java" "http://localhost:$PORT$REQUEST_PATH" \
+        "$CONCURRENCY" "$DURATION" "$WARMUP" "$label"
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+echo "$SERVICE_DIR $REQUEST_PATH concurrency=$CONCURRENCY duration=${DURATION}s pool=$POOL_SIZE tomcat-threads=$TOMCAT_THREADS"
+run platform false
+run virtual true
@@ -0,0 +1,20 @@
+-- Feedback service schema as mapped by the JPA entities
+
+CREATE TABLE feedback (
+    id bigint NOT NULL AUTO_INCREMENT,
+    ambiance_rating integer,
+    comments varchar(2000),
+    created_at datetime(6) NOT NULL,
+    customer_email varchar(255),
+    customer_name varchar(255) NOT NULL,
+    customer_phone varchar(255),
+    feedback_type enum ('COMPLAINT','COMPLIMENT','GENERAL','SUGGESTION') NOT NULL,
+    food_rating integer,
+    is_anonymous bit NOT NULL,
+    overall_rating integer NOT NULL,
+    service_rating integer,
+    suggestions varchar(2000),
+    updated_at datetime(6),
+    visit_date datetime(6),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,11 @@
+-- Indexes for the repository queries; each comment names the queries it serves
+
+-- findByCreatedAtBetween, findRecentFeedback (created_at >= ? ORDER BY created_at DESC)
+CREATE INDEX idx_feedback_created_at ON feedback (created_at);
+
+-- findByFeedbackType
+CREATE INDEX idx_feedback_type ON feedback (feedback_type);
+
+-- findByOverallRating, findByOverallRatingGreaterThanEqual, countPositiveFeedback, countNegativeFeedback,
+-- getAverageOverallRating (covered by the index alone)
+CREATE INDEX idx_feedback_overall_rating ON feedback (overall_rating);
@@ -0,0 +1,111 @@
+package com.hotelmanagement.feedbackservice;
+
+import com.hotelmanagement.feedbackservice.entity.Feedback;
+import com.hotelmanagement.feedbackservice.repository.FeedbackRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the repository queries that still reach the database against a migrated, seeded
+ * embedded database and asserts that the optimizer reads each through the index the migrations
+ * add for it. The statements are captured from the server's general log as the driver sent them,
+ * so a change to a query's shape is tested as it will run, not as a hand-written copy.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MigrationQueryPlanTest {
+    
+    private static final LocalDateTime NOW = LocalDateTime.now().withNano(0);
+    
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> EmbeddedMariaDb.url("feedback_service_plans"));
+        registry.add("spring.datasource.username", () -> "root");
+        registry.add("spring.datasource.password", () -> "");
+    }
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private FeedbackRepository repository;
+    
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.batchUpdate("INSERT INTO feedback (id, customer_name, feedback_type, overall_rating, food_rating, "
+                + "is_anonymous, created_at) VALUES (?, 'Guest', ?, ?, ?, 0, ?)", rows(20000, i -> new Object[] {
+                        i, i % 40 == 0 ? "COMPLAINT" : i % 2 == 0 ? "COMPLIMENT" : "GENERAL", i % 25 == 0 ? 1 : 3 + i % 3,
+                        3 + i % 3, Timestamp.valueOf(NOW.minusDays(365).plusMinutes(i * 26L))}));
+        jdbcTemplate.execute("ANALYZE TABLE feedback");
+    }
+    
+    @Test
+    void recentFeedbackReadsTheCreatedAtIndex() {
+        assertUses("idx_feedback_created_at", () -> repository.findRecentFeedback(NOW.minusDays(7)));
+        assertUses("idx_feedback_created_at", () -> repository.findByCreatedAtBetween(NOW.minusDays(30), NOW.minusDays(23)));
+    }
+    
+    @Test
+    void typeAndRatingQueriesUseTheirIndexes() {
+        assertUses("idx_feedback_type", () -> repository.findByFeedbackType(Feedback.FeedbackType.COMPLAINT));
+        assertUses("idx_feedback_overall_rating", () -> repository.findByOverallRating(1));
+        assertUses("idx_feedback_overall_rating", () -> repository.countNegativeFeedback());
+        assertUses("idx_feedback_overall_rating", () -> repository.getAverageOverallRating());
+    }
+    
+    // The query's first plan row must read through the index; sorted reads must not need a filesort
+    private void assertUses(String index, Runnable call) {
+        String sql = capture(call);
+        Map<String, Object> plan = jdbcTemplate.queryForList("EXPLAIN " + sql).get(0);
+        assertThat(plan.get("key")).as(sql).isEqualTo(index);
+        assertThat(String.valueOf(plan.get("Extra"))).as(sql).doesNotContain("filesort");
+    }
+    
+    private String capture(Runnable call) {
+        jdbcTemplate.execute("SET GLOBAL general_log = 0");
+        jdbcTemplate.execute("TRUNCATE TABLE mysql.general_log");
+        jdbcTemplate.execute("SET GLOBAL log_output = 'TABLE'");
+        jdbcTemplate.execute("SET GLOBAL general_log = 1");
+        try {
+            call.run();
+        } finally {
+            jdbcTemplate.execute("SET GLOBAL general_log = 0");
+        }
+        List<String> statements = new ArrayList<>();
+        for (String statement : jdbcTemplate.queryForList("SELECT CONVERT(argument USING utf8mb4) FROM mysql.general_log "
+                + "WHERE command_type IN ('Query', 'Execute')", String.class)) {
+            String verb = statement.stripLeading().toLowerCase(Locale.ROOT);
+            if (verb.startsWith("select") && !verb.contains("general_log")) {
+                statements.add(statement);
+            }
+        }
+        assertThat(statements).hasSize(1);
+        return statements.get(0);
+    }
+    
+    private static List<Object[]> rows(int count, IntFunction<Object[]> row) {
+        return IntStream.rangeClosed(1, count).mapToObj(row).toList();
+    }
+}
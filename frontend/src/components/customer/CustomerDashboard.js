@@ -12,6 +12,13 @@ function CustomerDashboard() {
 
   useEffect(() => {
     fetchDashboardData();
+    return tableAPI.subscribeToFloorChanges((type, data) => {
+      if (type === 'waiting-time') {
+        setWaitingInfo(prev => ({ ...prev, ...data }));
+      } else if (type === 'table' || type === 'resync') {
+        tableAPI.getAvailableTables().then(response => setAvailableTables(response.data));
+      }
+    });
   }, []);
 
   const fetchDashboardData = async () => {
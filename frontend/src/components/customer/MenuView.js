@@ -8,6 +8,7 @@ function MenuView() {
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
   const [searchTerm, setSearchTerm] = useState('');
+  const [searchRanking, setSearchRanking] = useState(null);
   const [selectedCategory, setSelectedCategory] = useState('');
   const [filters, setFilters] = useState({
     isVegetarian: false,
@@ -23,7 +24,30 @@ function MenuView() {
 
   useEffect(() => {
     filterMenuItems();
-  }, [menuItems, searchTerm, selectedCategory, filters]);
+  }, [menuItems, searchRanking, selectedCategory, filters]);
+
+  // Type-ahead goes through the server's ranked search; the other filters stay client-side
+  useEffect(() => {
+    if (!searchTerm.trim()) {
+      setSearchRanking(null);
+      return undefined;
+    }
+    let cancelled = false;
+    const timer = setTimeout(async () => {
+      try {
+        const response = await menuAPI.searchMenuItems(searchTerm);
+        if (!cancelled) {
+          setSearchRanking(response.data.map(item => item.id));
+        }
+      } catch (err) {
+        console.error('Search error:', err);
+      }
+    }, 150);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [searchTerm]);
 
   const fetchMenuItems = async () => {
     try {
@@ -43,11 +67,11 @@ function MenuView() {
     let filtered = menuItems;
 
     // Search filter
-    if (searchTerm) {
-      filtered = filtered.filter(item =>
-        item.name.toLowerCase().includes(searchTerm.toLowerCase()) ||
-        item.description.toLowerCase().includes(searchTerm.toLowerCase())
-      );
+    if (searchRanking) {
+      const rank = new Map(searchRanking.map((id, index) => [id, index]));
+      filtered = filtered
+        .filter(item => rank.has(item.id))
+        .sort((a, b) => rank.get(a.id) - rank.get(b.id));
     }
 
     // Category filter
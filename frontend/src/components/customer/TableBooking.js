@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { Container, Row, Col, Card, Form, Button, Alert, Modal } from 'react-bootstrap';
 import { useLocation, useNavigate } from 'react-router-dom';
 import { tableAPI } from '../../services/api';
@@ -12,6 +12,8 @@ function TableBooking() {
   const [success, setSuccess] = useState('');
   const [estimatedWaitTime, setEstimatedWaitTime] = useState(null);
   const [showConfirmModal, setShowConfirmModal] = useState(false);
+  // One key per booking attempt, so "try again" after a dropped response cannot book twice
+  const idempotencyKey = useRef(null);
   const [bookingData, setBookingData] = useState({
     customerName: '',
     customerPhone: '',
@@ -56,6 +58,7 @@ function TableBooking() {
 
   const handleInputChange = (e) => {
     const { name, value } = e.target;
+    idempotencyKey.current = null;
     setBookingData(prev => ({
       ...prev,
       [name]: value
@@ -81,6 +84,9 @@ function TableBooking() {
       return;
     }
 
+    if (!idempotencyKey.current) {
+      idempotencyKey.current = crypto.randomUUID();
+    }
     setShowConfirmModal(true);
   };
 
@@ -92,7 +98,8 @@ function TableBooking() {
         bookingTime: new Date(bookingData.bookingTime).toISOString()
       };
 
-      const response = await tableAPI.createBooking(booking);
+      const response = await tableAPI.createBooking(booking, idempotencyKey.current);
+      idempotencyKey.current = null;
       setSuccess(`Booking confirmed! Your booking ID is ${response.data.id}. Estimated wait time: ${estimatedWaitTime} minutes.`);
       setShowConfirmModal(false);
       
@@ -10,6 +10,7 @@ const GuestMenuView = () => {
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
   const [searchTerm, setSearchTerm] = useState('');
+  const [searchRanking, setSearchRanking] = useState(null);
   const [selectedCategory, setSelectedCategory] = useState('All');
   const [selectedDietary, setSelectedDietary] = useState('All');
   const [showLoginPrompt, setShowLoginPrompt] = useState(false);
@@ -22,12 +23,35 @@ const GuestMenuView = () => {
 
   useEffect(() => {
     filterMenuItems();
-  }, [menuItems, searchTerm, selectedCategory, selectedDietary]);
+  }, [menuItems, searchRanking, selectedCategory, selectedDietary]);
+
+  // Type-ahead goes through the server's ranked search; the other filters stay client-side
+  useEffect(() => {
+    if (!searchTerm.trim()) {
+      setSearchRanking(null);
+      return undefined;
+    }
+    let cancelled = false;
+    const timer = setTimeout(async () => {
+      try {
+        const response = await menuAPI.searchMenuItems(searchTerm);
+        if (!cancelled) {
+          setSearchRanking(response.data.map(item => item.id));
+        }
+      } catch (err) {
+        console.error('Search error:', err);
+      }
+    }, 150);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [searchTerm]);
 
   const fetchMenuItems = async () => {
     try {
       setLoading(true);
-      const response = await menuAPI.getAllMenuItems();
+      const response = await menuAPI.getAvailableMenuItems();
       setMenuItems(response.data);
       setError('');
     } catch (err) {
@@ -41,11 +65,11 @@ const GuestMenuView = () => {
   const filterMenuItems = () => {
     let filtered = menuItems.filter(item => item.isAvailable);
 
-    if (searchTerm) {
-      filtered = filtered.filter(item =>
-        item.name.toLowerCase().includes(searchTerm.toLowerCase()) ||
-        item.description.toLowerCase().includes(searchTerm.toLowerCase())
-      );
+    if (searchRanking) {
+      const rank = new Map(searchRanking.map((id, index) => [id, index]));
+      filtered = filtered
+        .filter(item => rank.has(item.id))
+        .sort((a, b) => rank.get(a.id) - rank.get(b.id));
     }
 
     if (selectedCategory !== 'All') {
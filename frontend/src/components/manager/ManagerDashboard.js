@@ -93,7 +93,8 @@ function ManagerDashboard() {
       'WAITING': 'warning',
       'SEATED': 'success',
       'COMPLETED': 'secondary',
-      'CANCELLED': 'danger'
+      'CANCELLED': 'danger',
+      'NO_SHOW': 'dark'
     };
     return statusColors[status] || 'secondary';
   };
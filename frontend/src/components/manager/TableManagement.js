@@ -15,6 +15,7 @@ function TableManagement() {
     tableNumber: '',
     capacity: '',
     location: '',
+    adjacentTableNumbers: '',
     status: 'AVAILABLE'
   });
 
@@ -29,19 +30,25 @@ function TableManagement() {
     { value: 'WAITING', label: 'Waiting', color: 'warning' },
     { value: 'SEATED', label: 'Seated', color: 'success' },
     { value: 'COMPLETED', label: 'Completed', color: 'secondary' },
-    { value: 'CANCELLED', label: 'Cancelled', color: 'danger' }
+    { value: 'CANCELLED', label: 'Cancelled', color: 'danger' },
+    { value: 'NO_SHOW', label: 'No-show', color: 'dark' }
   ];
 
   useEffect(() => {
     fetchData();
+    return tableAPI.subscribeToFloorChanges((type) => {
+      if (type !== 'waiting-time') {
+        fetchData(false);
+      }
+    });
   }, []);
 
-  const fetchData = async () => {
+  const fetchData = async (showLoading = true) => {
     try {
-      setLoading(true);
+      setLoading(showLoading);
       const [tablesResponse, bookingsResponse] = await Promise.all([
         tableAPI.getAllTables(),
-        tableAPI.getAllBookings()
+        tableAPI.getAllBookings({ direction: 'DESC', limit: 200 })
       ]);
       setTables(tablesResponse.data);
       setBookings(bookingsResponse.data);
@@ -97,6 +104,7 @@ function TableManagement() {
       tableNumber: table.tableNumber,
       capacity: table.capacity.toString(),
       location: table.location,
+      adjacentTableNumbers: table.adjacentTableNumbers || '',
       status: table.status
     });
     setShowTableModal(true);
@@ -128,7 +136,7 @@ function TableManagement() {
 
   const handleCompleteBooking = async (bookingId) => {
     try {
-      await tableAPI.completeBooking(bookingId);
+      await tableAPI.completeBooking(bookingId, `complete-${bookingId}`);
       setSuccess('Booking completed successfully');
       fetchData();
     } catch (err) {
@@ -155,6 +163,7 @@ function TableManagement() {
       tableNumber: '',
       capacity: '',
       location: '',
+      adjacentTableNumbers: '',
       status: 'AVAILABLE'
     });
   };
@@ -287,7 +296,7 @@ function TableManagement() {
                         <td>{booking.partySize} people</td>
                         <td>{formatDateTime(booking.bookingTime)}</td>
                         <td>
-                          {booking.table ? `#${booking.table.tableNumber}` : 'Not assigned'}
+                          {booking.tableNumber != null ? `#${booking.tableNumber}${booking.joinedTableIds ? ' (+ joined)' : ''}` : 'Not assigned'}
                         </td>
                         <td>
                           <Badge bg={getStatusBadge(booking.status, 'booking')}>
@@ -395,6 +404,17 @@ function TableManagement() {
               />
             </Form.Group>
 
+            <Form.Group className="mb-3">
+              <Form.Label>Adjacent Tables</Form.Label>
+              <Form.Control
+                type="text"
+                name="adjacentTableNumbers"
+                value={tableFormData.adjacentTableNumbers}
+                onChange={handleTableInputChange}
+                placeholder="e.g., 4, 5 (tables that can be pushed together with this one)"
+              />
+            </Form.Group>
+
             <Form.Group className="mb-3">
               <Form.Label>Status</Form.Label>
               <Form.Select
@@ -6,6 +6,10 @@ const TABLE_SERVICE_URL = 'http://localhost:8082/api';
 const MENU_SERVICE_URL = 'http://localhost:8083/api';
 const FEEDBACK_SERVICE_URL = 'http://localhost:8084/api';
 
+// Retried writes carrying the same key get the original response instead of a second write
+const idempotencyHeaders = (idempotencyKey) =>
+  idempotencyKey ? { headers: { 'Idempotency-Key': idempotencyKey } } : undefined;
+
 // Chef API
 export const chefAPI = {
   getAllChefs: () => axios.get(`${USER_SERVICE_URL}/chefs`),
@@ -26,16 +30,43 @@ export const tableAPI = {
   updateTableStatus: (id, status) => axios.put(`${TABLE_SERVICE_URL}/tables/${id}/status?status=${status}`),
   
   // Booking API
-  createBooking: (booking) => axios.post(`${TABLE_SERVICE_URL}/tables/book`, booking),
-  getAllBookings: () => axios.get(`${TABLE_SERVICE_URL}/tables/bookings`),
+  createBooking: (booking, idempotencyKey) => axios.post(`${TABLE_SERVICE_URL}/tables/book`, booking, idempotencyHeaders(idempotencyKey)),
+  createBookings: (bookings) => axios.post(`${TABLE_SERVICE_URL}/tables/book/batch`, bookings),
+  getAllBookings: (params) => axios.get(`${TABLE_SERVICE_URL}/tables/bookings`, { params }),
   getWaitingBookings: () => axios.get(`${TABLE_SERVICE_URL}/tables/bookings/waiting`),
-  seatCustomer: (bookingId, tableId) => axios.put(`${TABLE_SERVICE_URL}/tables/bookings/${bookingId}/seat/${tableId}`),
-  completeBooking: (id) => axios.put(`${TABLE_SERVICE_URL}/tables/bookings/${id}/complete`),
+  seatCustomer: (bookingId, tableId, idempotencyKey) =>
+    axios.put(`${TABLE_SERVICE_URL}/tables/bookings/${bookingId}/seat/${tableId}`, null, idempotencyHeaders(idempotencyKey)),
+  autoSeatCustomer: (bookingId) => axios.post(`${TABLE_SERVICE_URL}/tables/bookings/${bookingId}/auto-seat`),
+  completeBooking: (id, idempotencyKey) =>
+    axios.put(`${TABLE_SERVICE_URL}/tables/bookings/${id}/complete`, null, idempotencyHeaders(idempotencyKey)),
   cancelBooking: (id) => axios.delete(`${TABLE_SERVICE_URL}/tables/bookings/${id}`),
+  markNoShow: (id) => axios.put(`${TABLE_SERVICE_URL}/tables/bookings/${id}/no-show`),
+  getCustomerHistory: (phone) => axios.get(`${TABLE_SERVICE_URL}/tables/customers/${encodeURIComponent(phone)}`),
+  
+  // Floor maintenance API
+  getMaintenanceRuns: () => axios.get(`${TABLE_SERVICE_URL}/tables/maintenance`),
+  expireNoShows: () => axios.post(`${TABLE_SERVICE_URL}/tables/maintenance/expire-no-shows`),
+  resetFloor: () => axios.post(`${TABLE_SERVICE_URL}/tables/maintenance/floor-reset`),
   
   // Waiting time API
   getWaitingTimeInfo: () => axios.get(`${TABLE_SERVICE_URL}/tables/waiting-time`),
-  getEstimatedWaitTime: (partySize) => axios.get(`${TABLE_SERVICE_URL}/tables/waiting-time/${partySize}`)
+  getEstimatedWaitTime: (partySize) => axios.get(`${TABLE_SERVICE_URL}/tables/waiting-time/${partySize}`),
+  
+  // Reservation API
+  getReservationAvailability: (partySize, startTime, durationMinutes) =>
+    axios.get(`${TABLE_SERVICE_URL}/tables/reservations/availability`, { params: { partySize, startTime, durationMinutes } }),
+  getReservations: (from, to) => axios.get(`${TABLE_SERVICE_URL}/tables/reservations`, { params: { from, to } }),
+  createReservation: (reservation) => axios.post(`${TABLE_SERVICE_URL}/tables/reservations`, reservation),
+  cancelReservation: (id) => axios.delete(`${TABLE_SERVICE_URL}/tables/reservations/${id}`),
+  
+  // Live updates (Server-Sent Events); returns a function that closes the stream
+  subscribeToFloorChanges: (onChange) => {
+    const source = new EventSource(`${TABLE_SERVICE_URL}/tables/stream`);
+    ['table', 'booking', 'waiting-time', 'resync'].forEach((type) => {
+      source.addEventListener(type, (event) => onChange(type, JSON.parse(event.data)));
+    });
+    return () => source.close();
+  }
 };
 
 // Menu API
@@ -44,7 +75,12 @@ export const menuAPI = {
   getAvailableMenuItems: () => axios.get(`${MENU_SERVICE_URL}/menu/available`),
   getMenuItemsByCategory: (category) => axios.get(`${MENU_SERVICE_URL}/menu/category/${category}`),
   getMenuItemById: (id) => axios.get(`${MENU_SERVICE_URL}/menu/${id}`),
-  searchMenuItems: (keyword) => axios.get(`${MENU_SERVICE_URL}/menu/search?keyword=${keyword}`),
+  searchMenuItems: (keyword, limit) => axios.get(`${MENU_SERVICE_URL}/menu/search`, { params: { keyword, limit } }),
+  // Combined filters; category may be an array, sort is ID, NAME, PRICE_ASC or PRICE_DESC
+  queryMenuItems: (query) => axios.get(`${MENU_SERVICE_URL}/menu/query`, {
+    params: query,
+    paramsSerializer: { indexes: null }
+  }),
   getFilteredMenuItems: (filters) => {
     const params = new URLSearchParams(filters).toString();
     return axios.get(`${MENU_SERVICE_URL}/menu/filter?${params}`);
@@ -205,7 +205,8 @@ export const tableAPI = {
     // Update booking
     const updatedBooking = updateItem('bookings', bookingId, {
       status: 'SEATED',
-      table: { id: table.id, tableNumber: table.tableNumber },
+      tableId: table.id,
+      tableNumber: table.tableNumber,
       seatedAt: new Date().toISOString()
     });
 
@@ -220,9 +221,9 @@ export const tableAPI = {
     const bookings = getData('bookings');
     const booking = bookings.find(b => b.id === parseInt(bookingId));
     
-    if (booking && booking.table) {
+    if (booking && booking.tableId) {
       // Free up the table
-      updateItem('tables', booking.table.id, { status: 'AVAILABLE' });
+      updateItem('tables', booking.tableId, { status: 'AVAILABLE' });
     }
 
     const updatedBooking = updateItem('bookings', bookingId, {
@@ -238,9 +239,9 @@ export const tableAPI = {
     const bookings = getData('bookings');
     const booking = bookings.find(b => b.id === parseInt(bookingId));
     
-    if (booking && booking.table) {
+    if (booking && booking.tableId) {
       // Free up the table if it was assigned
-      updateItem('tables', booking.table.id, { status: 'AVAILABLE' });
+      updateItem('tables', booking.tableId, { status: 'AVAILABLE' });
     }
 
     const updatedBooking = updateItem('bookings', bookingId, {
@@ -265,6 +266,23 @@ export const menuAPI = {
     return { data: menuItems };
   },
 
+  searchMenuItems: async (keyword) => {
+    await delay(50);
+    const terms = keyword.toLowerCase().split(/\s+/).filter(Boolean);
+    const score = (item) => terms.reduce((total, term) => {
+      if (total < 0) return total;
+      if (item.name.toLowerCase().includes(term)) return total + 3;
+      if ((item.description || '').toLowerCase().includes(term)) return total + 1;
+      return -1;
+    }, 0);
+    const ranked = getData('menuItems')
+      .map(item => ({ item, score: score(item) }))
+      .filter(entry => entry.score > 0)
+      .sort((a, b) => b.score - a.score)
+      .map(entry => entry.item);
+    return { data: ranked };
+  },
+
   createMenuItem: async (itemData) => {
     await delay();
     const newItem = addItem('menuItems', {
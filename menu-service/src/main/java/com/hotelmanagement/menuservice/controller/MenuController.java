@@ -1,16 +1,25 @@
 package com.hotelmanagement.menuservice.controller;
 
+import com.hotelmanagement.menuservice.entity.Allergen;
 import com.hotelmanagement.menuservice.entity.MenuItem;
+import com.hotelmanagement.menuservice.service.MenuFilterIndex;
+import com.hotelmanagement.menuservice.service.MenuQueryCache;
 import com.hotelmanagement.menuservice.service.MenuService;
+import com.hotelmanagement.menuservice.service.MenuSnapshotCache;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/menu")
@@ -26,10 +35,22 @@ public class MenuController {
         return ResponseEntity.ok(menuItems);
     }
     
+    // Served from the pre-serialized snapshot: gzip bytes when the client accepts them, and a 304
+    // for a matching If-None-Match
     @GetMapping("/available")
-    public ResponseEntity<List<MenuItem>> getAvailableMenuItems() {
-        List<MenuItem> menuItems = menuService.getAvailableMenuItems();
-        return ResponseEntity.ok(menuItems);
+    public ResponseEntity<byte[]> getAvailableMenuItems(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        MenuSnapshotCache.MenuSnapshot snapshot = menuService.getMenuSnapshot();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (acceptsGzip(acceptEncoding)) {
+            return response.eTag(snapshot.gzipEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(snapshot.gzipJson());
+        }
+        return response.eTag(snapshot.etag()).body(snapshot.json());
     }
     
     @GetMapping("/category/{category}")
@@ -69,9 +90,11 @@ public class MenuController {
         return ResponseEntity.ok(menuItems);
     }
     
+    // Ranked, accent-insensitive search with prefix and typo matching, for type-ahead
     @GetMapping("/search")
-    public ResponseEntity<List<MenuItem>> searchMenuItems(@RequestParam String keyword) {
-        List<MenuItem> menuItems = menuService.searchMenuItems(keyword);
+    public ResponseEntity<List<MenuItem>> searchMenuItems(@RequestParam String keyword,
+                                                          @RequestParam(defaultValue = "50") Integer limit) {
+        List<MenuItem> menuItems = menuService.searchMenuItems(keyword, Math.max(1, Math.min(limit, 200)));
         return ResponseEntity.ok(menuItems);
     }
     
@@ -80,8 +103,34 @@ public class MenuController {
             @RequestParam(required = false) MenuItem.MenuCategory category,
             @RequestParam(required = false) Boolean isVegetarian,
             @RequestParam(required = false) Boolean isVegan,
-            @RequestParam(required = false) Boolean isSpicy) {
-        List<MenuItem> menuItems = menuService.getFilteredMenuItems(category, isVegetarian, isVegan, isSpicy);
+            @RequestParam(required = false) Boolean isSpicy,
+            @RequestParam(required = false) Set<Allergen> excludeAllergens) {
+        List<MenuItem> menuItems = menuService.getFilteredMenuItems(category, isVegetarian, isVegan, isSpicy, excludeAllergens);
+        return ResponseEntity.ok(menuItems);
+    }
+    
+    // Hit/miss/eviction counts for the read cache since startup
+    @GetMapping("/cache-stats")
+    public ResponseEntity<MenuQueryCache.CacheStats> getCacheStats() {
+        return ResponseEntity.ok(menuService.getCacheStats());
+    }
+    
+    // Any combination of category, flag and price filters, answered from the in-memory filter index
+    @GetMapping("/query")
+    public ResponseEntity<List<MenuItem>> queryMenuItems(
+            @RequestParam(required = false) Set<MenuItem.MenuCategory> category,
+            @RequestParam(required = false) Boolean isAvailable,
+            @RequestParam(required = false) Boolean isVegetarian,
+            @RequestParam(required = false) Boolean isVegan,
+            @RequestParam(required = false) Boolean isSpicy,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Set<Allergen> excludeAllergens,
+            @RequestParam(defaultValue = "ID") MenuFilterIndex.Sort sort,
+            @RequestParam(defaultValue = "500") Integer limit) {
+        MenuFilterIndex.MenuFilter filter = new MenuFilterIndex.MenuFilter(category, isAvailable, isVegetarian,
+                isVegan, isSpicy, minPrice, maxPrice, Allergen.toMask(excludeAllergens));
+        List<MenuItem> menuItems = menuService.queryMenuItems(filter, sort, Math.max(1, limit));
         return ResponseEntity.ok(menuItems);
     }
     
@@ -128,4 +177,24 @@ public class MenuController {
         }
         return ResponseEntity.notFound().build();
     }
+    
+    // An explicit gzip entry wins over "*"; either is refused only with q=0
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean refused = parts.length > 1 && parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                return !refused;
+            }
+            if (name.equals("*")) {
+                wildcard = !refused;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
 }
@@ -0,0 +1,75 @@
+package com.hotelmanagement.menuservice.entity;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The fourteen declarable food allergens. A menu item stores its set as a bitmask in
+ * menu_items.allergen_mask, one bit per constant by ordinal, so new constants must only ever be
+ * appended. The keyword patterns turn the free-text allergens column into that set; V3 applies
+ * the same patterns in SQL to migrate existing rows, so keep the two in step.
+ */
+public enum Allergen {
+    GLUTEN("gluten|wheat|barley|rye|oats?|spelt"),
+    CRUSTACEANS("crustaceans?|shellfish|shrimps?|prawns?|crabs?|lobsters?"),
+    EGGS("eggs?"),
+    FISH("fish|anchov(y|ies)|salmon|tuna|cod"),
+    PEANUTS("peanuts?|groundnuts?|(?<!tree )nuts?"),
+    SOY("soy|soya|soybeans?"),
+    MILK("milk|dairy|lactose|cheese|butter|cream"),
+    TREE_NUTS("tree ?nuts?|nuts?|almonds?|walnuts?|cashews?|hazelnuts?|pecans?|pistachios?"),
+    CELERY("celery|celeriac"),
+    MUSTARD("mustard"),
+    SESAME("sesame|tahini"),
+    SULPHITES("sul(ph|f)ites?"),
+    LUPIN("lupine?"),
+    MOLLUSCS("molluscs?|mollusks?|shellfish|squid|octopus|mussels?|oysters?|clams?|scallops?");
+    
+    private final Pattern keywords;
+    
+    Allergen(String keywords) {
+        // A bare "nut(s)" or "shellfish" is ambiguous and deliberately marks every allergen it may mean
+        this.keywords = Pattern.compile("\\b(" + keywords + ")\\b");
+    }
+    
+    public long bit() {
+        return 1L << ordinal();
+    }
+    
+    public static long toMask(Collection<Allergen> allergens) {
+        long mask = 0;
+        if (allergens != null) {
+            for (Allergen allergen : allergens) {
+                mask |= allergen.bit();
+            }
+        }
+        return mask;
+    }
+    
+    public static Set<Allergen> fromMask(long mask) {
+        Set<Allergen> allergens = EnumSet.noneOf(Allergen.class);
+        for (Allergen allergen : values()) {
+            if ((mask & allergen.bit()) != 0) {
+                allergens.add(allergen);
+            }
+        }
+        return allergens;
+    }
+    
+    public static long parseMask(String text) {
+        if (text == null || text.isBlank()) {
+            return 0;
+        }
+        String lower = text.toLowerCase(Locale.ROOT).replace('_', ' ');
+        long mask = 0;
+        for (Allergen allergen : values()) {
+            if (allergen.keywords.matcher(lower).find()) {
+                mask |= allergen.bit();
+            }
+        }
+        return mask;
+    }
+}
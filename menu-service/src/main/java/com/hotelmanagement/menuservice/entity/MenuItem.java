@@ -1,11 +1,13 @@
 package com.hotelmanagement.menuservice.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Set;
 
 @Entity
 @Table(name = "menu_items")
@@ -58,6 +60,11 @@ public class MenuItem {
     @Column(name = "allergens")
     private String allergens;
     
+    // Allergen bits parsed from the allergens text; see Allergen
+    @JsonIgnore
+    @Column(name = "allergen_mask", nullable = false)
+    private Long allergenMask = 0L;
+    
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
@@ -81,6 +88,29 @@ public class MenuItem {
         this.category = category;
     }
     
+    // Detached copy for the in-memory caches and indexes, so neither callers nor Hibernate change what they hold
+    public MenuItem copy() {
+        MenuItem copy = new MenuItem();
+        copy.id = id;
+        copy.name = name;
+        copy.description = description;
+        copy.price = price;
+        copy.category = category;
+        copy.imageUrl = imageUrl;
+        copy.preparationTime = preparationTime;
+        copy.isAvailable = isAvailable;
+        copy.isVegetarian = isVegetarian;
+        copy.isVegan = isVegan;
+        copy.isSpicy = isSpicy;
+        copy.calories = calories;
+        copy.ingredients = ingredients;
+        copy.allergens = allergens;
+        copy.allergenMask = allergenMask;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        return copy;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -192,6 +222,19 @@ public class MenuItem {
     
     public void setAllergens(String allergens) {
         this.allergens = allergens;
+        this.allergenMask = Allergen.parseMask(allergens);
+    }
+    
+    public Long getAllergenMask() {
+        return allergenMask;
+    }
+    
+    public void setAllergenMask(Long allergenMask) {
+        this.allergenMask = allergenMask;
+    }
+    
+    public Set<Allergen> getAllergenSet() {
+        return Allergen.fromMask(allergenMask != null ? allergenMask : 0);
     }
     
     public LocalDateTime getCreatedAt() {
@@ -0,0 +1,265 @@
+package com.hotelmanagement.menuservice.service;
+
+import com.hotelmanagement.menuservice.entity.MenuItem;
+import com.hotelmanagement.menuservice.repository.MenuItemRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory filter engine for menu queries. Every item occupies a slot; one bitset per boolean
+ * flag and per category marks the slots that have it, and a slot array sorted by price answers
+ * price bounds with two binary searches. A query is the intersection of the relevant bitsets,
+ * walked in the requested order, so no combination of filters touches the database. Allergen
+ * exclusion is a single bitwise test of each remaining item's allergen mask.
+ *
+ * Loaded once at startup; MenuService re-indexes a single item after every write. Slots hold
+ * copies and queries return copies, so no caller can change an indexed item behind the index's
+ * back. Rows edited directly in the database are not picked up until the next restart.
+ */
+@Component
+public class MenuFilterIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MenuFilterIndex.class);
+    
+    public enum Sort {
+        ID, NAME, PRICE_ASC, PRICE_DESC
+    }
+    
+    // Null fields do not filter; categories match any of the listed ones; excludeAllergens is an Allergen mask
+    public record MenuFilter(Set<MenuItem.MenuCategory> categories, Boolean isAvailable, Boolean isVegetarian,
+                             Boolean isVegan, Boolean isSpicy, BigDecimal minPrice, BigDecimal maxPrice,
+                             long excludeAllergens) {
+    }
+    
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<MenuItem> slots = new ArrayList<>();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet occupied = new BitSet();
+    private final BitSet available = new BitSet();
+    private final BitSet vegetarian = new BitSet();
+    private final BitSet vegan = new BitSet();
+    private final BitSet spicy = new BitSet();
+    private final Map<MenuItem.MenuCategory, BitSet> byCategory = new EnumMap<>(MenuItem.MenuCategory.class);
+    // Occupied slots ordered by price, then id
+    private final List<Integer> byPrice = new ArrayList<>();
+    
+    private final Comparator<Integer> priceOrder = Comparator
+            .comparing((Integer slot) -> slots.get(slot).getPrice())
+            .thenComparing(slot -> slots.get(slot).getId());
+    
+    public MenuFilterIndex() {
+        for (MenuItem.MenuCategory category : MenuItem.MenuCategory.values()) {
+            byCategory.put(category, new BitSet());
+        }
+    }
+    
+    @PostConstruct
+    public void load() {
+        List<MenuItem> all = menuItemRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            for (MenuItem item : all) {
+                add(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Loaded {} menu items into the filter index", all.size());
+    }
+    
+    public void index(MenuItem item) {
+        lock.writeLock().lock();
+        try {
+            remove(item.getId());
+            add(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void delete(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            remove(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public List<MenuItem> query(MenuFilter filter, Sort sort, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = (BitSet) occupied.clone();
+            if (filter.categories() != null && !filter.categories().isEmpty()) {
+                BitSet anyCategory = new BitSet();
+                for (MenuItem.MenuCategory category : filter.categories()) {
+                    anyCategory.or(byCategory.get(category));
+                }
+                matches.and(anyCategory);
+            }
+            restrict(matches, available, filter.isAvailable());
+            restrict(matches, vegetarian, filter.isVegetarian());
+            restrict(matches, vegan, filter.isVegan());
+            restrict(matches, spicy, filter.isSpicy());
+            
+            // Price bounds select a contiguous run of the price-sorted slots
+            int from = filter.minPrice() != null ? firstAtOrAbove(filter.minPrice()) : 0;
+            int to = filter.maxPrice() != null ? firstAbove(filter.maxPrice()) : byPrice.size();
+            if (filter.minPrice() != null || filter.maxPrice() != null) {
+                BitSet inRange = new BitSet();
+                for (int i = from; i < to; i++) {
+                    inRange.set(byPrice.get(i));
+                }
+                matches.and(inRange);
+            }
+            
+            // One AND against the item's allergen mask per remaining candidate
+            if (filter.excludeAllergens() != 0) {
+                for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                    if ((slots.get(slot).getAllergenMask() & filter.excludeAllergens()) != 0) {
+                        matches.clear(slot);
+                    }
+                }
+            }
+            
+            List<MenuItem> results = new ArrayList<>(Math.min(limit, matches.cardinality()));
+            switch (sort) {
+                case PRICE_ASC -> {
+                    for (int i = from; i < to && results.size() < limit; i++) {
+                        addIfMatching(results, matches, byPrice.get(i));
+                    }
+                }
+                case PRICE_DESC -> {
+                    for (int i = to - 1; i >= from && results.size() < limit; i--) {
+                        addIfMatching(results, matches, byPrice.get(i));
+                    }
+                }
+                default -> {
+                    for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                        results.add(slots.get(slot));
+                    }
+                    results.sort(sort == Sort.NAME
+                            ? Comparator.comparing(MenuItem::getName, String.CASE_INSENSITIVE_ORDER)
+                            : Comparator.comparing(MenuItem::getId));
+                    results = results.stream().limit(limit).map(MenuItem::copy).toList();
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private static void restrict(BitSet matches, BitSet flag, Boolean wanted) {
+        if (wanted == null) {
+            return;
+        }
+        if (wanted) {
+            matches.and(flag);
+        } else {
+            matches.andNot(flag);
+        }
+    }
+    
+    private void addIfMatching(List<MenuItem> results, BitSet matches, int slot) {
+        if (matches.get(slot)) {
+            results.add(slots.get(slot).copy());
+        }
+    }
+    
+    private int firstAtOrAbove(BigDecimal price) {
+        int low = 0;
+        int high = byPrice.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (slots.get(byPrice.get(mid)).getPrice().compareTo(price) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private int firstAbove(BigDecimal price) {
+        int low = 0;
+        int high = byPrice.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (slots.get(byPrice.get(mid)).getPrice().compareTo(price) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    // The slot keeps a private copy: byPrice stays sorted only while no one else can change a price
+    private void add(MenuItem original) {
+        MenuItem item = original.copy();
+        int slot;
+        if (freeSlots.isEmpty()) {
+            slot = slots.size();
+            slots.add(item);
+        } else {
+            slot = freeSlots.pop();
+            slots.set(slot, item);
+        }
+        slotById.put(item.getId(), slot);
+        occupied.set(slot);
+        available.set(slot, Boolean.TRUE.equals(item.getIsAvailable()));
+        vegetarian.set(slot, Boolean.TRUE.equals(item.getIsVegetarian()));
+        vegan.set(slot, Boolean.TRUE.equals(item.getIsVegan()));
+        spicy.set(slot, Boolean.TRUE.equals(item.getIsSpicy()));
+        if (item.getCategory() != null) {
+            byCategory.get(item.getCategory()).set(slot);
+        }
+        if (item.getPrice() != null) {
+            int position = -Collections.binarySearch(byPrice, slot, priceOrder) - 1;
+            byPrice.add(position, slot);
+        }
+    }
+    
+    private void remove(Long itemId) {
+        Integer slot = slotById.remove(itemId);
+        if (slot == null) {
+            return;
+        }
+        if (slots.get(slot).getPrice() != null) {
+            byPrice.remove(Collections.binarySearch(byPrice, slot, priceOrder));
+        }
+        occupied.clear(slot);
+        available.clear(slot);
+        vegetarian.clear(slot);
+        vegan.clear(slot);
+        spicy.clear(slot);
+        for (BitSet category : byCategory.values()) {
+            category.clear(slot);
+        }
+        slots.set(slot, null);
+        freeSlots.push(slot);
+    }
+}
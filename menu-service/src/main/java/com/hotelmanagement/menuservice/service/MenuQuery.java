@@ -0,0 +1,76 @@
+package com.hotelmanagement.menuservice.service;
+
+import com.hotelmanagement.menuservice.entity.MenuItem;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Cache key for one MenuService read, paired with the condition under which a menu item belongs
+ * to its result. The condition mirrors the repository query and lets a write invalidate only the
+ * cached results that contained the item before the change or will contain it afterwards.
+ * Equality covers the query name and arguments only.
+ */
+public final class MenuQuery {
+    
+    private final String name;
+    private final List<Object> arguments;
+    private final Predicate<MenuQueryCache.ItemState> includes;
+    
+    private MenuQuery(String name, List<Object> arguments, Predicate<MenuQueryCache.ItemState> includes) {
+        this.name = name;
+        this.arguments = arguments;
+        this.includes = includes;
+    }
+    
+    public static MenuQuery all() {
+        return new MenuQuery("all", List.of(), item -> true);
+    }
+    
+    public static MenuQuery byId(Long id) {
+        return new MenuQuery("id", List.of(id), item -> id.equals(item.id()));
+    }
+    
+    public static MenuQuery available() {
+        return new MenuQuery("available", List.of(), MenuQueryCache.ItemState::available);
+    }
+    
+    public static MenuQuery category(MenuItem.MenuCategory category) {
+        return new MenuQuery("category", List.of(category),
+                item -> item.available() && item.category() == category);
+    }
+    
+    public static MenuQuery vegetarian() {
+        return new MenuQuery("vegetarian", List.of(), MenuQueryCache.ItemState::vegetarian);
+    }
+    
+    public static MenuQuery vegan() {
+        return new MenuQuery("vegan", List.of(), MenuQueryCache.ItemState::vegan);
+    }
+    
+    public static MenuQuery spicy() {
+        return new MenuQuery("spicy", List.of(), MenuQueryCache.ItemState::spicy);
+    }
+    
+    boolean includes(MenuQueryCache.ItemState item) {
+        return item != null && includes.test(item);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MenuQuery other)) return false;
+        return name.equals(other.name) && arguments.equals(other.arguments);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, arguments);
+    }
+    
+    @Override
+    public String toString() {
+        return name + arguments;
+    }
+}
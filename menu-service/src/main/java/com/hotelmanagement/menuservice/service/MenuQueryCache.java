@@ -0,0 +1,126 @@
+package com.hotelmanagement.menuservice.service;
+
+import com.hotelmanagement.menuservice.entity.MenuItem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of MenuService read results, keyed by MenuQuery.
+ * Writes pass the item as it was before and after the change; only entries whose query matched
+ * either version are dropped, so toggling a dessert leaves the cached mains untouched. A
+ * generation counter bumped by every invalidation keeps a read that raced a write from caching
+ * the pre-write result. Entries also expire after a TTL, so rows edited outside the service
+ * reach the cached reads eventually. MenuService caches detached copies of the entities and
+ * copies them again on every read, so a cached value never changes after it is stored. Search,
+ * filter, price-range and max-price reads come from MenuSearchIndex and MenuFilterIndex instead,
+ * which only see writes made through MenuService; direct database edits reach them after a restart.
+ */
+@Component
+public class MenuQueryCache {
+    
+    // The fields the MenuQuery conditions look at, captured before an item is modified in place
+    public record ItemState(Long id, MenuItem.MenuCategory category,
+                            BigDecimal price, boolean available, boolean vegetarian, boolean vegan, boolean spicy) {
+        
+        public static ItemState of(MenuItem item) {
+            if (item == null) {
+                return null;
+            }
+            return new ItemState(item.getId(), item.getCategory(),
+                    item.getPrice(), Boolean.TRUE.equals(item.getIsAvailable()),
+                    Boolean.TRUE.equals(item.getIsVegetarian()), Boolean.TRUE.equals(item.getIsVegan()),
+                    Boolean.TRUE.equals(item.getIsSpicy()));
+        }
+    }
+    
+    public record CacheStats(long hits, long misses, double hitRatio, long evictions,
+                             long invalidations, int size, int maxEntries) {
+    }
+    
+    private record Entry(Object value, long expiresAtMillis) {
+    }
+    
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<MenuQuery, Entry> entries;
+    private final AtomicLong generation = new AtomicLong();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    
+    public MenuQueryCache(@Value("${menu-service.cache.max-entries:500}") int maxEntries,
+                          @Value("${menu-service.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MenuQuery, Entry> eldest) {
+                if (size() > MenuQueryCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+    
+    @SuppressWarnings("unchecked")
+    public <T> T get(MenuQuery query, Supplier<T> loader) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(query);
+            if (entry != null && entry.expiresAtMillis() > now) {
+                hits.increment();
+                return (T) entry.value();
+            }
+        }
+        misses.increment();
+        long loadedAtGeneration = generation.get();
+        T value = loader.get();
+        synchronized (entries) {
+            // A write landed while loading; the result may predate it, so serve it without caching
+            if (generation.get() == loadedAtGeneration) {
+                entries.put(query, new Entry(value, now + ttlMillis));
+            }
+        }
+        return value;
+    }
+    
+    /**
+     * Drops every cached result the item belonged to before the write or belongs to after it.
+     * Either side may be null for inserts and deletes.
+     */
+    public void invalidate(ItemState before, ItemState after) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.keySet().removeIf(query -> {
+                boolean affected = query.includes(before) || query.includes(after);
+                if (affected) {
+                    invalidations.increment();
+                }
+                return affected;
+            });
+        }
+    }
+    
+    public CacheStats getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(hitCount, missCount, total == 0 ? 0 : (double) hitCount / total,
+                evictions.sum(), invalidations.sum(), size, maxEntries);
+    }
+}
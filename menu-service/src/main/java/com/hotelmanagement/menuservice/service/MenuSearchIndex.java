@@ -0,0 +1,240 @@
+package com.hotelmanagement.menuservice.service;
+
+import com.hotelmanagement.menuservice.entity.MenuItem;
+import com.hotelmanagement.menuservice.repository.MenuItemRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenized inverted index over menu item name, category, ingredients and description.
+ * Terms are lower-cased and stripped of accents, so "creme" finds "Crème brûlée". Each term
+ * posts a per-item weight (name matches count most, description least), and the sorted term
+ * map answers prefix lookups for type-ahead. Query terms that match nothing by prefix fall back
+ * to terms within one or two edits, so "chiken" still finds the chicken dishes.
+ *
+ * Loaded once at startup and kept current by MenuService, which re-indexes an item after every
+ * write instead of rebuilding the whole index. The index holds its own copies of the items and
+ * hands out fresh copies, so changes to a returned or saved entity never reach it. Rows edited directly in the database are not picked
+ * up until the next restart.
+ */
+@Component
+public class MenuSearchIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MenuSearchIndex.class);
+    
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    
+    private static final float NAME_WEIGHT = 4f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float INGREDIENTS_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    
+    // How much of a term's weight a query token earns for an exact, prefix or near (typo) match
+    private static final float EXACT_MATCH = 1f;
+    private static final float PREFIX_MATCH = 0.7f;
+    private static final float TYPO_MATCH = 0.5f;
+    
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Map<String, Float>> termsByItem = new HashMap<>();
+    private final Map<Long, MenuItem> items = new HashMap<>();
+    
+    @PostConstruct
+    public void load() {
+        List<MenuItem> all = menuItemRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            termsByItem.clear();
+            items.clear();
+            for (MenuItem item : all) {
+                add(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Indexed {} menu items ({} terms) for search", all.size(), postings.size());
+    }
+    
+    public void index(MenuItem item) {
+        lock.writeLock().lock();
+        try {
+            remove(item.getId());
+            add(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void delete(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            remove(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Items matching every token of the query, best first. Tokens match terms by prefix, so a
+     * word that is still being typed already narrows the results.
+     */
+    public List<MenuItem> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = null;
+            for (String token : tokens) {
+                Map<Long, Float> tokenScores = scoreToken(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            Map<Long, Float> ranked = scores;
+            return ranked.keySet().stream()
+                    .sorted(Comparator.<Long>comparingDouble(id -> -ranked.get(id))
+                            .thenComparing(id -> items.get(id).getName()))
+                    .limit(limit)
+                    .map(id -> items.get(id).copy())
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Best match per item for one query token: exact beats prefix beats typo
+    private Map<Long, Float> scoreToken(String token) {
+        Map<Long, Float> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Float>> term : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            float factor = term.getKey().equals(token) ? EXACT_MATCH : PREFIX_MATCH;
+            accumulate(scores, term.getValue(), factor);
+        }
+        int maxEdits = token.length() >= 8 ? 2 : token.length() >= 4 ? 1 : 0;
+        if (scores.isEmpty() && maxEdits > 0) {
+            for (Map.Entry<String, Map<Long, Float>> term : postings.entrySet()) {
+                String candidate = term.getKey();
+                if (Math.abs(candidate.length() - token.length()) <= maxEdits
+                        && withinEdits(token, candidate, maxEdits)) {
+                    accumulate(scores, term.getValue(), TYPO_MATCH);
+                }
+            }
+        }
+        return scores;
+    }
+    
+    private static void accumulate(Map<Long, Float> scores, Map<Long, Float> posting, float factor) {
+        for (Map.Entry<Long, Float> entry : posting.entrySet()) {
+            scores.merge(entry.getKey(), entry.getValue() * factor, Math::max);
+        }
+    }
+    
+    private void add(MenuItem item) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, item.getName(), NAME_WEIGHT);
+        addTerms(terms, item.getCategory() != null ? item.getCategory().name() : null, CATEGORY_WEIGHT);
+        addTerms(terms, item.getIngredients(), INGREDIENTS_WEIGHT);
+        addTerms(terms, item.getDescription(), DESCRIPTION_WEIGHT);
+        for (Map.Entry<String, Float> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), k -> new HashMap<>()).put(item.getId(), term.getValue());
+        }
+        termsByItem.put(item.getId(), terms);
+        items.put(item.getId(), item.copy());
+    }
+    
+    private void remove(Long itemId) {
+        Map<String, Float> terms = termsByItem.remove(itemId);
+        items.remove(itemId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<Long, Float> posting = postings.get(term);
+            posting.remove(itemId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+    
+    // A term keeps the highest weight among the fields it appears in, plus a little per repeat
+    private static void addTerms(Map<String, Float> terms, String text, float weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, (current, added) -> Math.max(current, added) + 0.1f);
+        }
+    }
+    
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String token : NON_ALPHANUMERIC.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+    
+    // Damerau-Levenshtein (adjacent transpositions) with early exit once a row exceeds the bound
+    private static boolean withinEdits(String a, String b, int maxEdits) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, previous2[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+}
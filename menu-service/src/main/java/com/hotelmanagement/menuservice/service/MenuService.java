@@ -1,5 +1,6 @@
 package com.hotelmanagement.menuservice.service;
 
+import com.hotelmanagement.menuservice.entity.Allergen;
 import com.hotelmanagement.menuservice.entity.MenuItem;
 import com.hotelmanagement.menuservice.repository.MenuItemRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,106 +10,186 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+/**
+ * Menu reads are served through MenuQueryCache, keyword search through MenuSearchIndex and
+ * combined flag/category/price filters through MenuFilterIndex. Every write reports the item's
+ * state before and after the change so only the affected cached results are dropped, and
+ * re-indexes the item in both indexes. Writes are serialized with their re-indexing, so an older
+ * save can never be indexed over a newer one. The available-menu snapshot is versioned
+ * separately by MenuSnapshotCache and rebuilt on the next read after a write.
+ */
 @Service
 public class MenuService {
     
     @Autowired
     private MenuItemRepository menuItemRepository;
     
+    @Autowired
+    private MenuQueryCache menuQueryCache;
+    
+    @Autowired
+    private MenuSearchIndex menuSearchIndex;
+    
+    @Autowired
+    private MenuFilterIndex menuFilterIndex;
+    
+    @Autowired
+    private MenuSnapshotCache menuSnapshotCache;
+    
+    // Held across each write and its re-indexing, so the indexes see writes in the order they were saved
+    private final Object writeLock = new Object();
+    
     public List<MenuItem> getAllMenuItems() {
-        return menuItemRepository.findAll();
+        return copies(menuQueryCache.get(MenuQuery.all(), () -> copies(menuItemRepository.findAll())));
     }
     
     public List<MenuItem> getAvailableMenuItems() {
-        return menuItemRepository.findByIsAvailableTrue();
+        return copies(menuQueryCache.get(MenuQuery.available(), () -> copies(menuItemRepository.findByIsAvailableTrue())));
     }
     
     public List<MenuItem> getMenuItemsByCategory(MenuItem.MenuCategory category) {
-        return menuItemRepository.findByCategoryAndIsAvailableTrue(category);
+        return copies(menuQueryCache.get(MenuQuery.category(category),
+                () -> copies(menuItemRepository.findByCategoryAndIsAvailableTrue(category))));
     }
     
     public List<MenuItem> getVegetarianItems() {
-        return menuItemRepository.findByIsVegetarianTrue();
+        return copies(menuQueryCache.get(MenuQuery.vegetarian(), () -> copies(menuItemRepository.findByIsVegetarianTrue())));
     }
     
     public List<MenuItem> getVeganItems() {
-        return menuItemRepository.findByIsVeganTrue();
+        return copies(menuQueryCache.get(MenuQuery.vegan(), () -> copies(menuItemRepository.findByIsVeganTrue())));
     }
     
     public List<MenuItem> getSpicyItems() {
-        return menuItemRepository.findByIsSpicyTrue();
+        return copies(menuQueryCache.get(MenuQuery.spicy(), () -> copies(menuItemRepository.findByIsSpicyTrue())));
     }
     
     public List<MenuItem> getItemsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        return menuItemRepository.findByPriceBetween(minPrice, maxPrice);
+        return menuFilterIndex.query(new MenuFilterIndex.MenuFilter(null, null, null, null, null, minPrice, maxPrice, 0),
+                MenuFilterIndex.Sort.ID, Integer.MAX_VALUE);
     }
     
     public List<MenuItem> getItemsByMaxPrice(BigDecimal maxPrice) {
-        return menuItemRepository.findAvailableItemsByMaxPrice(maxPrice);
+        return menuFilterIndex.query(new MenuFilterIndex.MenuFilter(null, true, null, null, null, null, maxPrice, 0),
+                MenuFilterIndex.Sort.PRICE_ASC, Integer.MAX_VALUE);
     }
     
-    public List<MenuItem> searchMenuItems(String keyword) {
-        return menuItemRepository.searchByKeyword(keyword);
+    public List<MenuItem> searchMenuItems(String keyword, int limit) {
+        return menuSearchIndex.search(keyword, limit);
     }
     
-    public List<MenuItem> getFilteredMenuItems(MenuItem.MenuCategory category, Boolean isVegetarian, Boolean isVegan, Boolean isSpicy) {
-        return menuItemRepository.findByFilters(category, isVegetarian, isVegan, isSpicy);
+    public List<MenuItem> getFilteredMenuItems(MenuItem.MenuCategory category, Boolean isVegetarian, Boolean isVegan, Boolean isSpicy,
+                                               Set<Allergen> excludeAllergens) {
+        Set<MenuItem.MenuCategory> categories = category != null ? Set.of(category) : null;
+        return menuFilterIndex.query(new MenuFilterIndex.MenuFilter(categories, true, isVegetarian, isVegan, isSpicy, null, null,
+                Allergen.toMask(excludeAllergens)),
+                MenuFilterIndex.Sort.ID, Integer.MAX_VALUE);
+    }
+    
+    public List<MenuItem> queryMenuItems(MenuFilterIndex.MenuFilter filter, MenuFilterIndex.Sort sort, int limit) {
+        return menuFilterIndex.query(filter, sort, limit);
+    }
+    
+    public MenuSnapshotCache.MenuSnapshot getMenuSnapshot() {
+        return menuSnapshotCache.get();
+    }
+    
+    public MenuQueryCache.CacheStats getCacheStats() {
+        return menuQueryCache.getStats();
     }
     
     public Optional<MenuItem> getMenuItemById(Long id) {
-        return menuItemRepository.findById(id);
+        return menuQueryCache.get(MenuQuery.byId(id), () -> menuItemRepository.findById(id).map(MenuItem::copy))
+                .map(MenuItem::copy);
+    }
+    
+    // Cached results hold detached copies and every read gets its own, so no caller or dirty-check changes them
+    private static List<MenuItem> copies(List<MenuItem> items) {
+        return items.stream().map(MenuItem::copy).toList();
     }
     
     public MenuItem saveMenuItem(MenuItem menuItem) {
-        if (menuItem.getId() == null) {
-            menuItem.setCreatedAt(LocalDateTime.now());
-        } else {
-            menuItem.setUpdatedAt(LocalDateTime.now());
+        synchronized (writeLock) {
+            MenuQueryCache.ItemState before = null;
+            if (menuItem.getId() == null) {
+                menuItem.setCreatedAt(LocalDateTime.now());
+            } else {
+                before = menuItemRepository.findById(menuItem.getId()).map(MenuQueryCache.ItemState::of).orElse(null);
+                menuItem.setUpdatedAt(LocalDateTime.now());
+            }
+            MenuItem saved = menuItemRepository.save(menuItem);
+            menuQueryCache.invalidate(before, MenuQueryCache.ItemState.of(saved));
+            menuSearchIndex.index(saved);
+            menuFilterIndex.index(saved);
+            menuSnapshotCache.invalidate();
+            return saved;
         }
-        return menuItemRepository.save(menuItem);
     }
     
     public MenuItem updateMenuItem(Long id, MenuItem menuItemDetails) {
-        Optional<MenuItem> optionalMenuItem = menuItemRepository.findById(id);
-        if (optionalMenuItem.isPresent()) {
-            MenuItem menuItem = optionalMenuItem.get();
-            menuItem.setName(menuItemDetails.getName());
-            menuItem.setDescription(menuItemDetails.getDescription());
-            menuItem.setPrice(menuItemDetails.getPrice());
-            menuItem.setCategory(menuItemDetails.getCategory());
-            menuItem.setImageUrl(menuItemDetails.getImageUrl());
-            menuItem.setPreparationTime(menuItemDetails.getPreparationTime());
-            menuItem.setIsAvailable(menuItemDetails.getIsAvailable());
-            menuItem.setIsVegetarian(menuItemDetails.getIsVegetarian());
-            menuItem.setIsVegan(menuItemDetails.getIsVegan());
-            menuItem.setIsSpicy(menuItemDetails.getIsSpicy());
-            menuItem.setCalories(menuItemDetails.getCalories());
-            menuItem.setIngredients(menuItemDetails.getIngredients());
-            menuItem.setAllergens(menuItemDetails.getAllergens());
-            menuItem.setUpdatedAt(LocalDateTime.now());
-            return menuItemRepository.save(menuItem);
+        synchronized (writeLock) {
+            Optional<MenuItem> optionalMenuItem = menuItemRepository.findById(id);
+            if (optionalMenuItem.isPresent()) {
+                MenuItem menuItem = optionalMenuItem.get();
+                MenuQueryCache.ItemState before = MenuQueryCache.ItemState.of(menuItem);
+                menuItem.setName(menuItemDetails.getName());
+                menuItem.setDescription(menuItemDetails.getDescription());
+                menuItem.setPrice(menuItemDetails.getPrice());
+                menuItem.setCategory(menuItemDetails.getCategory());
+                menuItem.setImageUrl(menuItemDetails.getImageUrl());
+                menuItem.setPreparationTime(menuItemDetails.getPreparationTime());
+                menuItem.setIsAvailable(menuItemDetails.getIsAvailable());
+                menuItem.setIsVegetarian(menuItemDetails.getIsVegetarian());
+                menuItem.setIsVegan(menuItemDetails.getIsVegan());
+                menuItem.setIsSpicy(menuItemDetails.getIsSpicy());
+                menuItem.setCalories(menuItemDetails.getCalories());
+                menuItem.setIngredients(menuItemDetails.getIngredients());
+                menuItem.setAllergens(menuItemDetails.getAllergens());
+                menuItem.setUpdatedAt(LocalDateTime.now());
+                MenuItem saved = menuItemRepository.save(menuItem);
+                menuQueryCache.invalidate(before, MenuQueryCache.ItemState.of(saved));
+                menuSearchIndex.index(saved);
+                menuFilterIndex.index(saved);
+                menuSnapshotCache.invalidate();
+                return saved;
+            }
+            return null;
         }
-        return null;
     }
     
     public boolean deleteMenuItem(Long id) {
-        Optional<MenuItem> optionalMenuItem = menuItemRepository.findById(id);
-        if (optionalMenuItem.isPresent()) {
-            menuItemRepository.deleteById(id);
-            return true;
+        synchronized (writeLock) {
+            Optional<MenuItem> optionalMenuItem = menuItemRepository.findById(id);
+            if (optionalMenuItem.isPresent()) {
+                menuItemRepository.deleteById(id);
+                menuQueryCache.invalidate(MenuQueryCache.ItemState.of(optionalMenuItem.get()), null);
+                menuSearchIndex.delete(id);
+                menuFilterIndex.delete(id);
+                menuSnapshotCache.invalidate();
+                return true;
+            }
+            return false;
         }
-        return false;
     }
     
     public MenuItem toggleAvailability(Long id) {
-        Optional<MenuItem> optionalMenuItem = menuItemRepository.findById(id);
-        if (optionalMenuItem.isPresent()) {
-            MenuItem menuItem = optionalMenuItem.get();
-            menuItem.setIsAvailable(!menuItem.getIsAvailable());
-            menuItem.setUpdatedAt(LocalDateTime.now());
-            return menuItemRepository.save(menuItem);
+        synchronized (writeLock) {
+            Optional<MenuItem> optionalMenuItem = menuItemRepository.findById(id);
+            if (optionalMenuItem.isPresent()) {
+                MenuItem menuItem = optionalMenuItem.get();
+                MenuQueryCache.ItemState before = MenuQueryCache.ItemState.of(menuItem);
+                menuItem.setIsAvailable(!menuItem.getIsAvailable());
+                menuItem.setUpdatedAt(LocalDateTime.now());
+                MenuItem saved = menuItemRepository.save(menuItem);
+                menuQueryCache.invalidate(before, MenuQueryCache.ItemState.of(saved));
+                menuSearchIndex.index(saved);
+                menuFilterIndex.index(saved);
+                menuSnapshotCache.invalidate();
+                return saved;
+            }
+            return null;
         }
-        return null;
     }
 }
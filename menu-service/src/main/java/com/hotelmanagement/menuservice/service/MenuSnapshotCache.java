@@ -0,0 +1,84 @@
+package com.hotelmanagement.menuservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelmanagement.menuservice.entity.MenuItem;
+import com.hotelmanagement.menuservice.repository.MenuItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-serialized, pre-compressed snapshot of the available menu, the payload every guest device
+ * loads on open. MenuService bumps the version on each write; the snapshot is rebuilt (one
+ * query, one serialization, one gzip at maximum compression) the first time it is read at a
+ * newer version, so requests between menu changes only copy bytes that already exist.
+ */
+@Component
+public class MenuSnapshotCache {
+    
+    public record MenuSnapshot(long version, String etag, byte[] json, byte[] gzipJson) {
+        
+        // Each encoding is its own representation and needs its own strong validator
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+    }
+    
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Distinguishes ETags issued before a restart, when the version counter starts over
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong(1);
+    private volatile MenuSnapshot current;
+    
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+    
+    public MenuSnapshot get() {
+        MenuSnapshot snapshot = current;
+        if (snapshot != null && snapshot.version() == version.get()) {
+            return snapshot;
+        }
+        return rebuild();
+    }
+    
+    private synchronized MenuSnapshot rebuild() {
+        // Read the version before the query: a write committed meanwhile leaves this snapshot stale, not wrong
+        long buildVersion = version.get();
+        if (current != null && current.version() == buildVersion) {
+            return current;
+        }
+        List<MenuItem> available = menuItemRepository.findByIsAvailableTrue();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(available);
+            current = new MenuSnapshot(buildVersion, "\"" + epoch + "-" + buildVersion + "\"", json, gzip(json));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return current;
+    }
+    
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,21 @@
+-- Menu service schema as mapped by the JPA entities
+
+CREATE TABLE menu_items (
+    id bigint NOT NULL AUTO_INCREMENT,
+    allergens varchar(255),
+    calories integer,
+    category enum ('APPETIZER','BEVERAGE','DESSERT','MAIN_COURSE','SALAD','SOUP','SPECIAL') NOT NULL,
+    created_at datetime(6) NOT NULL,
+    description varchar(1000),
+    image_url varchar(255),
+    ingredients varchar(2000),
+    is_available bit NOT NULL,
+    is_spicy bit NOT NULL,
+    is_vegan bit NOT NULL,
+    is_vegetarian bit NOT NULL,
+    name varchar(255) NOT NULL,
+    preparation_time integer,
+    price decimal(10,2) NOT NULL,
+    updated_at datetime(6),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
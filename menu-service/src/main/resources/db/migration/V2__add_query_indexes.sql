@@ -0,0 +1,10 @@
+-- Indexes for the repository queries; each comment names the queries it serves
+
+-- findByCategory, findByCategoryAndIsAvailableTrue, findByFilters with a category
+CREATE INDEX idx_menu_items_category_available ON menu_items (category, is_available);
+
+-- findByIsAvailableTrue, findAvailableItemsByMaxPrice (is_available = true AND price <= ? ORDER BY price)
+CREATE INDEX idx_menu_items_available_price ON menu_items (is_available, price);
+
+-- findByPriceBetween
+CREATE INDEX idx_menu_items_price ON menu_items (price);
@@ -0,0 +1,33 @@
+-- Structured allergens: one bit per Allergen constant (by ordinal), parsed from the free-text
+-- allergens column with the same keyword patterns as Allergen.parseMask
+
+ALTER TABLE menu_items ADD COLUMN allergen_mask bigint NOT NULL DEFAULT 0;
+
+UPDATE menu_items SET allergen_mask = allergen_mask | 1
+    WHERE LOWER(REPLACE(allergens, '_', ' ')) REGEXP '\\b(gluten|wheat|barley|rye|oats?|spelt)\\b';
+UPDATE menu_items SET allergen_mask = allergen_mask | 2
+    WHERE LOWER(REPLACE(allergens, '_', ' ')) REGEXP '\\b(crustaceans?|shellfish|shrimps?|prawns?|crabs?|lobsters?)\\b';
+UPDATE menu_items SET allergen_mask = allergen_mask | 4
+    WHERE LOWER(REPLACE(allergens, '_', ' ')) REGEXP '\\b(eggs?)\\b';
+UPDATE menu_items SET allergen_mask = allergen_mask | 8
+    WHERE LOWER(REPLACE(allergens, '_', ' ')) REGEXP '\\b(fish|anchov(y|ies)|salmon|tuna|cod)\\b';
+UPDATE menu_items SET allergen_mask = allergen_mask | 16
+    WHERE LOWER(REPLACE(allergens, '_', ' ')) REGEXP '\\b(peanuts?|groundnuts?|(?<!tree )nuts?)\\b';
+UPDATE menu_items SET allergen_mask = allergen_mask | 32
+    WHERE LOWER(REPLACE(allergens, '_', ' ')) REGEXP '\\b(soy|soya|soybeans?)\\b';
+UPDATE menu_items SET allergen_mask = allergen_mask | 64
+    WHERE LOWER(REPLACE(allergens, '_', ' ')) REGEXP '\\b(milk|dairy|lactose|cheese|butter|cream)\\b';
+UPDATE menu_items SET allergen_mask = allergen_mask | 128
+    WHERE LOWER(REPLACE(allergens, '_', ' ')) REGEXP '\\b(tree ?nuts?|nuts?|almonds?|walnuts?|cashews?|hazelnuts?|pecans?|pistachios?)\\b';
+UPDATE menu_items SET allergen_mask = allergen_mask | 256
+    WHERE LOWER(REPLACE(allergens, '_', ' ')) REGEXP '\\b(celery|celeriac)\\b';
+UPDATE menu_items SET allergen_mask = allergen_mask | 512
+    WHERE LOWER(REPLACE(allergens, '_', ' ')) REGEXP '\\b(mustard)\\b';
+UPDATE menu_items SET allergen_mask = allergen_mask | 1024
+    WHERE LOWER(REPLACE(allergens, '_', ' ')) REGEXP '\\b(sesame|tahini)\\b';
+UPDATE menu_items SET allergen_mask = allergen_mask | 2048
+    WHERE LOWER(REPLACE(allergens, '_', ' ')) REGEXP '\\b(sul(ph|f)ites?)\\b';
+UPDATE menu_items SET allergen_mask = allergen_mask | 4096
+    WHERE LOWER(REPLACE(allergens, '_', ' ')) REGEXP '\\b(lupine?)\\b';
+UPDATE menu_items SET allergen_mask = allergen_mask | 8192
+    WHERE LOWER(REPLACE(allergens, '_', ' ')) REGEXP '\\b(molluscs?|mollusks?|shellfish|squid|octopus|mussels?|oysters?|clams?|scallops?)\\b';
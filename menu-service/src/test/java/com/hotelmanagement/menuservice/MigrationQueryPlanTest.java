@@ -0,0 +1,113 @@
+package com.hotelmanagement.menuservice;
+
+import com.hotelmanagement.menuservice.entity.MenuItem;
+import com.hotelmanagement.menuservice.repository.MenuItemRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the repository queries that still reach the database against a migrated, seeded
+ * embedded database and asserts that the optimizer reads each through the index the migrations
+ * add for it. The statements are captured from the server's general log as the driver sent them,
+ * so a change to a query's shape is tested as it will run, not as a hand-written copy.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MigrationQueryPlanTest {
+    
+    private static final LocalDateTime NOW = LocalDateTime.now().withNano(0);
+    
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> EmbeddedMariaDb.url("menu_service_plans"));
+        registry.add("spring.datasource.username", () -> "root");
+        registry.add("spring.datasource.password", () -> "");
+    }
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private MenuItemRepository repository;
+    
+    @BeforeAll
+    void seed() {
+        String[] categories = {"APPETIZER", "BEVERAGE", "DESSERT", "MAIN_COURSE", "SALAD", "SOUP", "SPECIAL"};
+        jdbcTemplate.batchUpdate("INSERT INTO menu_items (id, name, category, price, is_available, is_vegetarian, is_vegan, "
+                + "is_spicy, allergen_mask, created_at) VALUES (?, ?, ?, ?, ?, ?, 0, 0, 0, ?)", rows(5000, i -> new Object[] {
+                        i, "Item " + i, categories[i % categories.length], BigDecimal.valueOf(300 + i % 9000, 2),
+                        i % 4 == 0, i % 3 == 0, Timestamp.valueOf(NOW)}));
+        jdbcTemplate.execute("ANALYZE TABLE menu_items");
+    }
+    
+    @Test
+    void categoryMenuReadsTheCategoryAvailabilityIndex() {
+        assertUses("idx_menu_items_category_available",
+                () -> repository.findByCategoryAndIsAvailableTrue(MenuItem.MenuCategory.DESSERT));
+    }
+    
+    @Test
+    void priceQueriesReadThePriceIndexes() {
+        assertUses("idx_menu_items_available_price",
+                () -> repository.findAvailableItemsByMaxPrice(new BigDecimal("5.00")));
+        assertUses("idx_menu_items_price",
+                () -> repository.findByPriceBetween(new BigDecimal("10.00"), new BigDecimal("12.00")));
+    }
+    
+    // The query's first plan row must read through the index; sorted reads must not need a filesort
+    private void assertUses(String index, Runnable call) {
+        String sql = capture(call);
+        Map<String, Object> plan = jdbcTemplate.queryForList("EXPLAIN " + sql).get(0);
+        assertThat(plan.get("key")).as(sql).isEqualTo(index);
+        assertThat(String.valueOf(plan.get("Extra"))).as(sql).doesNotContain("filesort");
+    }
+    
+    private String capture(Runnable call) {
+        jdbcTemplate.execute("SET GLOBAL general_log = 0");
+        jdbcTemplate.execute("TRUNCATE TABLE mysql.general_log");
+        jdbcTemplate.execute("SET GLOBAL log_output = 'TABLE'");
+        jdbcTemplate.execute("SET GLOBAL general_log = 1");
+        try {
+            call.run();
+        } finally {
+            jdbcTemplate.execute("SET GLOBAL general_log = 0");
+        }
+        List<String> statements = new ArrayList<>();
+        for (String statement : jdbcTemplate.queryForList("SELECT CONVERT(argument USING utf8mb4) FROM mysql.general_log "
+                + "WHERE command_type IN ('Query', 'Execute')", String.class)) {
+            String verb = statement.stripLeading().toLowerCase(Locale.ROOT);
+            if (verb.startsWith("select") && !verb.contains("general_log")) {
+                statements.add(statement);
+            }
+        }
+        assertThat(statements).hasSize(1);
+        return statements.get(0);
+    }
+    
+    private static List<Object[]> rows(int count, IntFunction<Object[]> row) {
+        return IntStream.rangeClosed(1, count).mapToObj(row).toList();
+    }
+}
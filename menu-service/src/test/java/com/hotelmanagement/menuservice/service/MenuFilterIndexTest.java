@@ -0,0 +1,119 @@
+package com.hotelmanagement.menuservice.service;
+
+import com.hotelmanagement.menuservice.entity.Allergen;
+import com.hotelmanagement.menuservice.entity.MenuItem;
+import com.hotelmanagement.menuservice.repository.MenuItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MenuFilterIndexTest {
+    
+    private final MenuFilterIndex index = new MenuFilterIndex();
+    
+    @BeforeEach
+    void load() {
+        MenuItemRepository repository = mock(MenuItemRepository.class);
+        when(repository.findAll()).thenReturn(List.of(
+                item(1L, "Tomato Soup", MenuItem.MenuCategory.SOUP, "4.50", true, null),
+                item(2L, "Ribeye", MenuItem.MenuCategory.MAIN_COURSE, "22.00", true, null),
+                item(3L, "Cheesecake", MenuItem.MenuCategory.DESSERT, "7.00", true, "milk, eggs"),
+                item(4L, "Satay Salad", MenuItem.MenuCategory.SALAD, "9.50", false, "peanuts"),
+                item(5L, "Affogato", MenuItem.MenuCategory.DESSERT, "7.00", true, "milk")));
+        ReflectionTestUtils.setField(index, "menuItemRepository", repository);
+        index.load();
+    }
+    
+    @Test
+    void priceBoundsAreInclusiveAndTiesSortById() {
+        assertThat(ids(index.query(filter(null, null, "7.00", "9.50", 0), MenuFilterIndex.Sort.PRICE_ASC, 10)))
+                .containsExactly(3L, 5L, 4L);
+        assertThat(ids(index.query(filter(null, null, null, "7.00", 0), MenuFilterIndex.Sort.PRICE_ASC, 10)))
+                .containsExactly(1L, 3L, 5L);
+        assertThat(ids(index.query(filter(null, null, "22.01", null, 0), MenuFilterIndex.Sort.PRICE_ASC, 10)))
+                .isEmpty();
+    }
+    
+    @Test
+    void sortOrdersAndLimitApplyAfterFiltering() {
+        assertThat(ids(index.query(filter(null, true, null, null, 0), MenuFilterIndex.Sort.PRICE_DESC, 2)))
+                .containsExactly(2L, 5L);
+        assertThat(ids(index.query(filter(null, true, null, null, 0), MenuFilterIndex.Sort.NAME, 3)))
+                .containsExactly(5L, 3L, 2L);
+        assertThat(ids(index.query(filter(null, null, null, null, 0), MenuFilterIndex.Sort.ID, 10)))
+                .containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+    
+    @Test
+    void categoriesAndFlagsIntersect() {
+        assertThat(ids(index.query(filter(Set.of(MenuItem.MenuCategory.DESSERT, MenuItem.MenuCategory.SALAD), true, null, null, 0),
+                MenuFilterIndex.Sort.ID, 10))).containsExactly(3L, 5L);
+        assertThat(ids(index.query(filter(null, false, null, null, 0), MenuFilterIndex.Sort.ID, 10)))
+                .containsExactly(4L);
+    }
+    
+    @Test
+    void excludedAllergensDropEveryItemContainingAnyOfThem() {
+        long milk = Allergen.toMask(Set.of(Allergen.MILK));
+        long milkOrPeanuts = Allergen.toMask(Set.of(Allergen.MILK, Allergen.PEANUTS));
+        
+        assertThat(ids(index.query(filter(null, null, null, null, milk), MenuFilterIndex.Sort.ID, 10)))
+                .containsExactly(1L, 2L, 4L);
+        assertThat(ids(index.query(filter(null, null, null, null, milkOrPeanuts), MenuFilterIndex.Sort.PRICE_ASC, 10)))
+                .containsExactly(1L, 2L);
+    }
+    
+    @Test
+    void reindexingMovesAnItemWithinThePriceOrder() {
+        index.index(item(2L, "Ribeye", MenuItem.MenuCategory.MAIN_COURSE, "5.00", true, null));
+        index.delete(3L);
+        
+        assertThat(ids(index.query(filter(null, null, null, null, 0), MenuFilterIndex.Sort.PRICE_ASC, 10)))
+                .containsExactly(1L, 2L, 5L, 4L);
+        assertThat(ids(index.query(filter(null, null, "5.00", "5.00", 0), MenuFilterIndex.Sort.ID, 10)))
+                .containsExactly(2L);
+    }
+    
+    @Test
+    void changingAReturnedOrSavedItemLeavesThePriceOrderIntact() {
+        MenuItem saved = item(6L, "Lemonade", MenuItem.MenuCategory.BEVERAGE, "3.00", true, null);
+        index.index(saved);
+        saved.setPrice(new BigDecimal("30.00"));
+        index.query(filter(null, null, null, null, 0), MenuFilterIndex.Sort.PRICE_ASC, 10)
+                .forEach(item -> item.setPrice(BigDecimal.ONE));
+        
+        // remove() binary-searches the price order, so it only finds the slot if the indexed prices are untouched
+        index.delete(6L);
+        index.delete(1L);
+        assertThat(ids(index.query(filter(null, null, null, null, 0), MenuFilterIndex.Sort.PRICE_ASC, 10)))
+                .containsExactly(3L, 5L, 4L, 2L);
+    }
+    
+    private static MenuFilterIndex.MenuFilter filter(Set<MenuItem.MenuCategory> categories, Boolean available,
+                                                     String minPrice, String maxPrice, long excludeAllergens) {
+        return new MenuFilterIndex.MenuFilter(categories, available, null, null, null,
+                minPrice != null ? new BigDecimal(minPrice) : null, maxPrice != null ? new BigDecimal(maxPrice) : null,
+                excludeAllergens);
+    }
+    
+    private static List<Long> ids(List<MenuItem> items) {
+        return items.stream().map(MenuItem::getId).toList();
+    }
+    
+    private static MenuItem item(Long id, String name, MenuItem.MenuCategory category, String price, boolean available,
+                                 String allergens) {
+        MenuItem item = new MenuItem(name, null, new BigDecimal(price), category);
+        item.setId(id);
+        item.setIsAvailable(available);
+        item.setAllergens(allergens);
+        return item;
+    }
+}
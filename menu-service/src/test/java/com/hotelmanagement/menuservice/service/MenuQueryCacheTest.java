@@ -0,0 +1,100 @@
+package com.hotelmanagement.menuservice.service;
+
+import com.hotelmanagement.menuservice.entity.MenuItem;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuQueryCacheTest {
+    
+    private final AtomicInteger loads = new AtomicInteger();
+    
+    @Test
+    void aWriteDropsOnlyTheResultsTheItemBelongedToBeforeOrAfter() {
+        MenuQueryCache cache = new MenuQueryCache(100, 600);
+        MenuItem tart = item(1L, MenuItem.MenuCategory.DESSERT, true);
+        for (MenuQuery query : List.of(MenuQuery.category(MenuItem.MenuCategory.DESSERT),
+                MenuQuery.category(MenuItem.MenuCategory.MAIN_COURSE), MenuQuery.available(), MenuQuery.byId(2L))) {
+            load(cache, query);
+        }
+        
+        MenuQueryCache.ItemState before = MenuQueryCache.ItemState.of(tart);
+        tart.setIsAvailable(false);
+        cache.invalidate(before, MenuQueryCache.ItemState.of(tart));
+        
+        loads.set(0);
+        load(cache, MenuQuery.category(MenuItem.MenuCategory.MAIN_COURSE));
+        load(cache, MenuQuery.byId(2L));
+        assertThat(loads).hasValue(0);
+        load(cache, MenuQuery.category(MenuItem.MenuCategory.DESSERT));
+        load(cache, MenuQuery.available());
+        assertThat(loads).hasValue(2);
+        assertThat(cache.getStats().invalidations()).isEqualTo(2);
+    }
+    
+    @Test
+    void insertsAndDeletesInvalidateWithOneSideNull() {
+        MenuQueryCache cache = new MenuQueryCache(100, 600);
+        MenuItem soup = item(3L, MenuItem.MenuCategory.SOUP, true);
+        load(cache, MenuQuery.all());
+        load(cache, MenuQuery.byId(3L));
+        
+        cache.invalidate(null, MenuQueryCache.ItemState.of(soup));
+        cache.invalidate(MenuQueryCache.ItemState.of(soup), null);
+        
+        loads.set(0);
+        load(cache, MenuQuery.all());
+        load(cache, MenuQuery.byId(3L));
+        assertThat(loads).hasValue(2);
+    }
+    
+    @Test
+    void aResultLoadedAcrossAWriteIsServedButNotCached() {
+        MenuQueryCache cache = new MenuQueryCache(100, 600);
+        MenuItem special = item(4L, MenuItem.MenuCategory.SPECIAL, true);
+        
+        String value = cache.get(MenuQuery.all(), () -> {
+            cache.invalidate(null, MenuQueryCache.ItemState.of(special));
+            return "stale";
+        });
+        
+        assertThat(value).isEqualTo("stale");
+        assertThat(cache.<String>get(MenuQuery.all(), () -> "fresh")).isEqualTo("fresh");
+    }
+    
+    @Test
+    void leastRecentlyUsedEntriesAreEvictedAndExpiredOnesReloaded() {
+        MenuQueryCache cache = new MenuQueryCache(2, 600);
+        load(cache, MenuQuery.vegan());
+        load(cache, MenuQuery.spicy());
+        load(cache, MenuQuery.vegan());
+        load(cache, MenuQuery.vegetarian());
+        
+        loads.set(0);
+        load(cache, MenuQuery.vegan());
+        assertThat(loads).hasValue(0);
+        load(cache, MenuQuery.spicy());
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getStats().evictions()).isEqualTo(2);
+        
+        MenuQueryCache expiring = new MenuQueryCache(2, 0);
+        load(expiring, MenuQuery.vegan());
+        load(expiring, MenuQuery.vegan());
+        assertThat(expiring.getStats().hits()).isZero();
+    }
+    
+    private void load(MenuQueryCache cache, MenuQuery query) {
+        cache.get(query, () -> query.toString() + loads.incrementAndGet());
+    }
+    
+    private static MenuItem item(Long id, MenuItem.MenuCategory category, boolean available) {
+        MenuItem item = new MenuItem("Item " + id, null, new BigDecimal("6.00"), category);
+        item.setId(id);
+        item.setIsAvailable(available);
+        return item;
+    }
+}
@@ -0,0 +1,102 @@
+package com.hotelmanagement.menuservice.service;
+
+import com.hotelmanagement.menuservice.entity.MenuItem;
+import com.hotelmanagement.menuservice.repository.MenuItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MenuSearchIndexTest {
+    
+    private final MenuSearchIndex index = new MenuSearchIndex();
+    
+    @BeforeEach
+    void load() {
+        MenuItemRepository repository = mock(MenuItemRepository.class);
+        when(repository.findAll()).thenReturn(List.of(
+                item(1L, "Chicken Curry", MenuItem.MenuCategory.MAIN_COURSE, "chicken, rice, coconut milk", "Mild and creamy"),
+                item(2L, "Caesar Salad", MenuItem.MenuCategory.SALAD, "romaine, grilled chicken, parmesan", null),
+                item(3L, "Crème Brûlée", MenuItem.MenuCategory.DESSERT, "cream, sugar, vanilla", "Baked custard"),
+                item(4L, "Chocolate Cake", MenuItem.MenuCategory.DESSERT, "cocoa, flour, eggs", "Served with chicory cream")));
+        ReflectionTestUtils.setField(index, "menuItemRepository", repository);
+        index.load();
+    }
+    
+    @Test
+    void nameMatchesRankAboveIngredientAndDescriptionMatches() {
+        assertThat(names(index.search("chicken", 10))).containsExactly("Chicken Curry", "Caesar Salad");
+        assertThat(names(index.search("cream", 10))).containsExactly("Crème Brûlée", "Chocolate Cake", "Chicken Curry");
+    }
+    
+    @Test
+    void everyTokenMustMatchAndTheLastMayBeAPrefix() {
+        assertThat(names(index.search("choc", 10))).containsExactly("Chocolate Cake");
+        assertThat(names(index.search("chicken cu", 10))).containsExactly("Chicken Curry");
+        assertThat(names(index.search("dessert cho", 10))).containsExactly("Chocolate Cake");
+        assertThat(index.search("chicken cake", 10)).isEmpty();
+    }
+    
+    @Test
+    void exactTermsOutrankTermsTheyArePrefixesOf() {
+        // "chic" is a prefix of both chicken and chicory; the name match still leads
+        assertThat(names(index.search("chic", 10))).containsExactly("Chicken Curry", "Caesar Salad", "Chocolate Cake");
+    }
+    
+    @Test
+    void accentsAreFoldedOnBothSides() {
+        assertThat(names(index.search("creme brulee", 10))).containsExactly("Crème Brûlée");
+        assertThat(names(index.search("Brûlée", 10))).containsExactly("Crème Brûlée");
+    }
+    
+    @Test
+    void tokensThatMatchNothingFallBackToNearTerms() {
+        assertThat(names(index.search("chiken", 10))).containsExactly("Chicken Curry", "Caesar Salad");
+        assertThat(names(index.search("choclate", 10))).containsExactly("Chocolate Cake");
+        // Tokens shorter than four characters get no typo allowance
+        assertThat(index.search("cke", 10)).isEmpty();
+    }
+    
+    @Test
+    void limitKeepsTheBestMatches() {
+        assertThat(names(index.search("chicken", 1))).containsExactly("Chicken Curry");
+        assertThat(index.search("  ", 10)).isEmpty();
+    }
+    
+    @Test
+    void reindexingAndDeletingReplaceTheItemsTerms() {
+        index.index(item(1L, "Lamb Curry", MenuItem.MenuCategory.MAIN_COURSE, "lamb, rice", null));
+        assertThat(names(index.search("chicken", 10))).containsExactly("Caesar Salad");
+        assertThat(names(index.search("lamb", 10))).containsExactly("Lamb Curry");
+        
+        index.delete(2L);
+        assertThat(index.search("chicken", 10)).isEmpty();
+    }
+    
+    @Test
+    void callersCannotChangeIndexedItems() {
+        MenuItem saved = item(5L, "Mango Lassi", MenuItem.MenuCategory.BEVERAGE, "mango, yogurt", null);
+        index.index(saved);
+        saved.setName("Changed After Save");
+        index.search("mango", 10).get(0).setName("Changed By Caller");
+        
+        assertThat(names(index.search("mango", 10))).containsExactly("Mango Lassi");
+    }
+    
+    private static List<String> names(List<MenuItem> items) {
+        return items.stream().map(MenuItem::getName).toList();
+    }
+    
+    private static MenuItem item(Long id, String name, MenuItem.MenuCategory category, String ingredients, String description) {
+        MenuItem item = new MenuItem(name, description, new BigDecimal("9.00"), category);
+        item.setId(id);
+        item.setIngredients(ingredients);
+        return item;
+    }
+}
@@ -0,0 +1,46 @@
+package com.hotelmanagement.tableservice.controller;
+
+import com.hotelmanagement.tableservice.service.IdempotencyKeyConflictException;
+import com.hotelmanagement.tableservice.service.SeatingConflictException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+    
+    @ExceptionHandler(SeatingConflictException.class)
+    public ResponseEntity<Map<String, String>> handleSeatingConflict(SeatingConflictException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", e.getMessage());
+        return ResponseEntity.badRequest().body(response);
+    }
+    
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleConcurrentUpdate(OptimisticLockingFailureException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", "The booking or table was changed by another request, please refresh and retry");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+    
+    // 422 when the key was used for a different request, 409 while the original is still running
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ResponseEntity<Map<String, String>> handleIdempotencyConflict(IdempotencyKeyConflictException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", e.getMessage());
+        HttpStatus status = e.isKeyReused() ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(response);
+    }
+}
@@ -0,0 +1,184 @@
+package com.hotelmanagement.tableservice.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelmanagement.tableservice.entity.PhoneNumbers;
+import com.hotelmanagement.tableservice.service.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies the configured RateLimiter rules before a request reaches the controllers, answering
+ * 429 with Retry-After once a client runs out of tokens. Rules keyed by customerPhone read it
+ * from the JSON body, which is buffered so the controller can still bind it; requests without
+ * one fall back to the client address.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    private static final int MAX_BUFFERED_BODY_BYTES = 64 * 1024;
+    
+    @Autowired
+    private RateLimiter rateLimiter;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${table-service.rate-limit.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+    
+    @Value("${spring.web.cors.allowed-origins:http://localhost:3000}")
+    private String[] allowedOrigins;
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        List<RateLimiter.Rule> rules = rateLimiter.matchingRules(request.getMethod(), request.getRequestURI());
+        if (rules.isEmpty()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        HttpServletRequest filtered = request;
+        String customerPhone = null;
+        if (rules.stream().anyMatch(rule -> rule.keyType() == RateLimiter.KeyType.CUSTOMER_PHONE)) {
+            CachedBodyRequest cached = CachedBodyRequest.wrap(request);
+            if (cached == null) {
+                response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+                return;
+            }
+            filtered = cached;
+            customerPhone = customerPhoneOf(cached.body);
+        }
+        List<String> clientKeys = new ArrayList<>(rules.size());
+        for (RateLimiter.Rule rule : rules) {
+            clientKeys.add(rule.keyType() == RateLimiter.KeyType.CUSTOMER_PHONE && customerPhone != null
+                    ? "phone:" + customerPhone
+                    : "ip:" + clientAddress(request));
+        }
+        long waitNanos = rateLimiter.tryAcquire(rules, clientKeys);
+        if (waitNanos > 0) {
+            reject(request, response, waitNanos);
+            return;
+        }
+        chain.doFilter(filtered, response);
+    }
+    
+    // Written before the MVC CORS handling runs, so the allowed origin is added here for the browser to read the 429
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000);
+        String origin = request.getHeader(HttpHeaders.ORIGIN);
+        if (origin != null && Arrays.asList(allowedOrigins).contains(origin)) {
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin);
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, HttpHeaders.RETRY_AFTER);
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ORIGIN);
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                Map.of("error", "Too many requests, retry in " + retryAfterSeconds + " seconds"));
+    }
+    
+    private String clientAddress(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                return forwarded.split(",")[0].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+    
+    private String customerPhoneOf(byte[] body) {
+        try {
+            JsonNode phone = objectMapper.readTree(body).path("customerPhone");
+            String normalized = phone.isTextual() ? PhoneNumbers.normalize(phone.asText()) : null;
+            return normalized == null || normalized.isEmpty() ? null : normalized;
+        } catch (IOException e) {
+            // Malformed JSON is rejected by the controller; limit it by address meanwhile
+            return null;
+        }
+    }
+    
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+    
+        private final byte[] body;
+    
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+    
+        static CachedBodyRequest wrap(HttpServletRequest request) throws IOException {
+            if (request.getContentLengthLong() > MAX_BUFFERED_BODY_BYTES) {
+                return null;
+            }
+            byte[] body = request.getInputStream().readNBytes(MAX_BUFFERED_BODY_BYTES + 1);
+            if (body.length > MAX_BUFFERED_BODY_BYTES) {
+                return null;
+            }
+            return new CachedBodyRequest(request, body);
+        }
+    
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+    
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+    
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+    
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+    
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("Buffered request body does not support async reads");
+                }
+            };
+        }
+    
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.hotelmanagement.tableservice.controller;
+
+import com.hotelmanagement.tableservice.entity.TableReservation;
+import com.hotelmanagement.tableservice.service.ReservationIndex;
+import com.hotelmanagement.tableservice.service.ReservationService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/tables/reservations")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ReservationController {
+    
+    @Autowired
+    private ReservationService reservationService;
+    
+    @GetMapping("/availability")
+    public ResponseEntity<List<ReservationIndex.AvailableTable>> getAvailableTables(
+            @RequestParam Integer partySize,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(defaultValue = "90") Integer durationMinutes) {
+        List<ReservationIndex.AvailableTable> tables = reservationService.findAvailableTables(partySize, startTime, durationMinutes);
+        return ResponseEntity.ok(tables);
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<TableReservation>> getReservations(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        List<TableReservation> reservations = reservationService.getReservationsBetween(from, to);
+        return ResponseEntity.ok(reservations);
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<TableReservation> getReservationById(@PathVariable Long id) {
+        Optional<TableReservation> reservation = reservationService.getReservationById(id);
+        return reservation.map(ResponseEntity::ok)
+                         .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @PostMapping
+    public ResponseEntity<TableReservation> createReservation(@Valid @RequestBody TableReservation reservation) {
+        TableReservation savedReservation = reservationService.createReservation(reservation);
+        return ResponseEntity.status(HttpStatus.CREATED).body(savedReservation);
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelReservation(@PathVariable Long id) {
+        boolean cancelled = reservationService.cancelReservation(id);
+        if (cancelled) {
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+}
@@ -2,17 +2,48 @@ package com.hotelmanagement.tableservice.controller;
 
 import com.hotelmanagement.tableservice.entity.RestaurantTable;
 import com.hotelmanagement.tableservice.entity.TableBooking;
+import com.hotelmanagement.tableservice.entity.WaitTimeRollup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelmanagement.tableservice.repository.BookingCursor;
+import com.hotelmanagement.tableservice.repository.BookingFilter;
+import com.hotelmanagement.tableservice.repository.BookingView;
+import com.hotelmanagement.tableservice.service.CustomerHistoryIndex;
+import com.hotelmanagement.tableservice.service.FloorEventStream;
+import com.hotelmanagement.tableservice.service.FloorMaintenance;
+import com.hotelmanagement.tableservice.service.FloorSnapshotCache;
+import com.hotelmanagement.tableservice.service.IdempotencyStore;
+import com.hotelmanagement.tableservice.service.RateLimiter;
+import com.hotelmanagement.tableservice.service.TableCombinationIndex;
 import com.hotelmanagement.tableservice.service.TableService;
+import com.hotelmanagement.tableservice.service.WaitTimeRollups;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/tables")
@@ -22,17 +53,44 @@ public class TableController {
     @Autowired
     private TableService tableService;
     
+    @Autowired
+    private FloorEventStream floorEventStream;
+    
+    @Autowired
+    private FloorMaintenance floorMaintenance;
+    
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+    
+    @Autowired
+    private RateLimiter rateLimiter;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    
+    @Value("${table-service.booking.max-batch-size:500}")
+    private int maxBatchSize;
+    
+    @Value("${table-service.booking.max-page-size:500}")
+    private int maxPageSize;
+    
     // Table Management Endpoints
+    // Both listings are served from the cached floor snapshot; a matching If-None-Match gets a 304
     @GetMapping
-    public ResponseEntity<List<RestaurantTable>> getAllTables() {
-        List<RestaurantTable> tables = tableService.getAllTables();
-        return ResponseEntity.ok(tables);
+    public ResponseEntity<byte[]> getAllTables() {
+        FloorSnapshotCache.FloorSnapshot snapshot = tableService.getFloorSnapshot();
+        return snapshotResponse(snapshot, snapshot.allTablesJson());
     }
     
     @GetMapping("/available")
-    public ResponseEntity<List<RestaurantTable>> getAvailableTables() {
-        List<RestaurantTable> tables = tableService.getAvailableTables();
-        return ResponseEntity.ok(tables);
+    public ResponseEntity<byte[]> getAvailableTables() {
+        FloorSnapshotCache.FloorSnapshot snapshot = tableService.getFloorSnapshot();
+        return snapshotResponse(snapshot, snapshot.availableTablesJson());
     }
     
     @GetMapping("/available/{capacity}")
@@ -41,6 +99,14 @@ public class TableController {
         return ResponseEntity.ok(tables);
     }
     
+    // Best free group of adjacent tables for a party no single table seats (not claimed)
+    @GetMapping("/combinations/{partySize}")
+    public ResponseEntity<TableCombinationIndex.Combination> getTableCombination(@PathVariable Integer partySize) {
+        Optional<TableCombinationIndex.Combination> combination = tableService.findTableCombination(partySize);
+        return combination.map(ResponseEntity::ok)
+                          .orElse(ResponseEntity.notFound().build());
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<RestaurantTable> getTableById(@PathVariable Long id) {
         Optional<RestaurantTable> table = tableService.getTableById(id);
@@ -69,51 +135,125 @@ public class TableController {
     }
     
     // Booking Management Endpoints
+    // Book, seat and complete honor an Idempotency-Key header: a retry replays the first response.
+    // They answer with the flat BookingView, which serializes the same on a replay and never touches a lazy table
     @PostMapping("/book")
-    public ResponseEntity<TableBooking> createBooking(@Valid @RequestBody TableBooking booking) {
-        try {
+    public ResponseEntity<?> createBooking(@Valid @RequestBody TableBooking booking,
+                                           @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        // Digest of the whole bound body, as the entity normalized it, so a key reused for any other booking is refused
+        String fingerprint = "POST /book " + sha256(objectMapper.valueToTree(booking).toString());
+        return idempotent(idempotencyKey, fingerprint, () -> {
             TableBooking savedBooking = tableService.createBooking(booking);
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedBooking);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            return ResponseEntity.status(HttpStatus.CREATED).body(BookingView.of(savedBooking));
+        });
+    }
+    
+    @PostMapping("/book/batch")
+    public ResponseEntity<?> createBookings(@RequestBody List<TableBooking> bookings) {
+        if (bookings.isEmpty() || bookings.size() > maxBatchSize) {
+            Map<String, String> response = new HashMap<>();
+            response.put("error", "Batch must contain between 1 and " + maxBatchSize + " bookings");
+            return ResponseEntity.badRequest().body(response);
+        }
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            for (ConstraintViolation<TableBooking> violation : validator.validate(bookings.get(i))) {
+                errors.add("[" + i + "] " + violation.getMessage());
+            }
         }
+        if (!errors.isEmpty()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("errors", errors);
+            return ResponseEntity.badRequest().body(response);
+        }
+        List<TableBooking> savedBookings = tableService.createBookings(bookings);
+        return ResponseEntity.status(HttpStatus.CREATED).body(savedBookings.stream().map(BookingView::of).toList());
     }
     
+    // Keyset-paginated listing; the cursor for the next page is returned in the X-Next-Cursor header
     @GetMapping("/bookings")
-    public ResponseEntity<List<TableBooking>> getAllBookings() {
-        List<TableBooking> bookings = tableService.getAllBookings();
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<List<BookingView>> getBookings(
+            @RequestParam(required = false) TableBooking.BookingStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "ASC") String direction,
+            @RequestParam(defaultValue = "100") Integer limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        BookingCursor cursor = after != null ? BookingCursor.decode(after) : null;
+        List<BookingView> bookings = tableService.getBookingsPage(new BookingFilter(status, from, to), cursor,
+                "DESC".equalsIgnoreCase(direction), pageSize);
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookings.size() == pageSize) {
+            BookingView last = bookings.get(bookings.size() - 1);
+            response.header("X-Next-Cursor", new BookingCursor(last.bookingTime(), last.id()).encode());
+        }
+        return response.body(bookings);
+    }
+    
+    // Full history export as newline-delimited JSON, streamed in constant memory
+    @GetMapping(value = "/bookings/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam(required = false) TableBooking.BookingStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        BookingFilter filter = new BookingFilter(status, from, to);
+        StreamingResponseBody body = (OutputStream out) -> tableService.exportBookings(filter, booking -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(booking));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
     
     @GetMapping("/bookings/waiting")
-    public ResponseEntity<List<TableBooking>> getWaitingBookings() {
-        List<TableBooking> bookings = tableService.getWaitingBookings();
+    public ResponseEntity<List<BookingView>> getWaitingBookings() {
+        List<BookingView> bookings = tableService.getWaitingBookings();
         return ResponseEntity.ok(bookings);
     }
     
     @GetMapping("/bookings/{id}")
-    public ResponseEntity<TableBooking> getBookingById(@PathVariable Long id) {
-        Optional<TableBooking> booking = tableService.getBookingById(id);
+    public ResponseEntity<BookingView> getBookingById(@PathVariable Long id) {
+        Optional<BookingView> booking = tableService.getBookingById(id);
         return booking.map(ResponseEntity::ok)
                      .orElse(ResponseEntity.notFound().build());
     }
     
     @PutMapping("/bookings/{bookingId}/seat/{tableId}")
-    public ResponseEntity<TableBooking> seatCustomer(@PathVariable Long bookingId, @PathVariable Long tableId) {
-        TableBooking seatedBooking = tableService.seatCustomer(bookingId, tableId);
+    public ResponseEntity<?> seatCustomer(@PathVariable Long bookingId, @PathVariable Long tableId,
+                                          @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotent(idempotencyKey, "PUT /bookings/" + bookingId + "/seat/" + tableId, () -> {
+            TableBooking seatedBooking = tableService.seatCustomer(bookingId, tableId);
+            if (seatedBooking != null) {
+                return ResponseEntity.ok(BookingView.of(seatedBooking));
+            }
+            return ResponseEntity.notFound().build();
+        });
+    }
+    
+    @PostMapping("/bookings/{id}/auto-seat")
+    public ResponseEntity<BookingView> autoSeatCustomer(@PathVariable Long id) {
+        TableBooking seatedBooking = tableService.autoSeatCustomer(id);
         if (seatedBooking != null) {
-            return ResponseEntity.ok(seatedBooking);
+            return ResponseEntity.ok(BookingView.of(seatedBooking));
         }
         return ResponseEntity.notFound().build();
     }
     
     @PutMapping("/bookings/{id}/complete")
-    public ResponseEntity<TableBooking> completeBooking(@PathVariable Long id) {
-        TableBooking completedBooking = tableService.completeBooking(id);
-        if (completedBooking != null) {
-            return ResponseEntity.ok(completedBooking);
-        }
-        return ResponseEntity.notFound().build();
+    public ResponseEntity<?> completeBooking(@PathVariable Long id,
+                                             @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotent(idempotencyKey, "PUT /bookings/" + id + "/complete", () -> {
+            TableBooking completedBooking = tableService.completeBooking(id);
+            if (completedBooking != null) {
+                return ResponseEntity.ok(BookingView.of(completedBooking));
+            }
+            return ResponseEntity.notFound().build();
+        });
     }
     
     @DeleteMapping("/bookings/{id}")
@@ -125,11 +265,29 @@ public class TableController {
         return ResponseEntity.notFound().build();
     }
     
+    @PutMapping("/bookings/{id}/no-show")
+    public ResponseEntity<BookingView> markNoShow(@PathVariable Long id) {
+        TableBooking booking = tableService.markNoShow(id);
+        if (booking != null) {
+            return ResponseEntity.ok(BookingView.of(booking));
+        }
+        return ResponseEntity.notFound().build();
+    }
+    
+    // Returning-customer summary for the host stand; unknown numbers get an empty history
+    @GetMapping("/customers/{phone}")
+    public ResponseEntity<CustomerHistoryIndex.CustomerHistory> getCustomerHistory(@PathVariable String phone) {
+        return ResponseEntity.ok(tableService.getCustomerHistory(phone));
+    }
+    
     // Waiting Time and Statistics Endpoints
     @GetMapping("/waiting-time")
-    public ResponseEntity<Map<String, Object>> getWaitingTimeInfo() {
+    public ResponseEntity<Map<String, Object>> getWaitingTimeInfo(@RequestParam(defaultValue = "168") Integer windowHours) {
         Map<String, Object> waitingInfo = new HashMap<>();
-        waitingInfo.put("averageWaitTime", tableService.getAverageWaitTime());
+        WaitTimeRollups.Stats seatWait = tableService.getWaitTimeStats(WaitTimeRollup.Metric.SEAT_WAIT, windowHours);
+        waitingInfo.put("averageWaitTime", seatWait.mean());
+        waitingInfo.put("seatWait", seatWait);
+        waitingInfo.put("tableTurn", tableService.getWaitTimeStats(WaitTimeRollup.Metric.TABLE_TURN, windowHours));
         waitingInfo.put("currentWaitingCount", tableService.getWaitingCount());
         waitingInfo.put("availableTableCount", tableService.getAvailableTableCount());
         waitingInfo.put("occupiedTableCount", tableService.getOccupiedTableCount());
@@ -143,4 +301,83 @@ public class TableController {
         response.put("estimatedWaitTime", estimatedTime);
         return ResponseEntity.ok(response);
     }
+    
+    // Live Updates (table, booking, waiting-time and resync events)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamFloorChanges() {
+        return floorEventStream.subscribe();
+    }
+    
+    // Floor Maintenance (the same jobs run on their schedules; these trigger them on demand)
+    @GetMapping("/maintenance")
+    public ResponseEntity<List<FloorMaintenance.MaintenanceRun>> getMaintenanceRuns() {
+        return ResponseEntity.ok(floorMaintenance.getLastRuns());
+    }
+    
+    @PostMapping("/maintenance/expire-no-shows")
+    public ResponseEntity<FloorMaintenance.MaintenanceRun> expireNoShows() {
+        return ResponseEntity.ok(floorMaintenance.expireNoShows());
+    }
+    
+    @PostMapping("/maintenance/floor-reset")
+    public ResponseEntity<FloorMaintenance.MaintenanceRun> resetFloor() {
+        return ResponseEntity.ok(floorMaintenance.resetFloor());
+    }
+    
+    // Allowed/rejected counts per rate-limit rule since startup
+    @GetMapping("/rate-limits")
+    public ResponseEntity<List<RateLimiter.RuleStats>> getRateLimitStats() {
+        return ResponseEntity.ok(rateLimiter.getStats());
+    }
+    
+    private ResponseEntity<byte[]> snapshotResponse(FloorSnapshotCache.FloorSnapshot snapshot, byte[] body) {
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+    
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    // Whatever the action returns is recorded, so a retry replays it; an action that threw (and rolled back)
+    // or answered with a server error frees the key instead
+    private ResponseEntity<?> idempotent(String key, String fingerprint, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        IdempotencyStore.StoredResponse stored = idempotencyStore.claim(key, fingerprint);
+        if (stored != null) {
+            ResponseEntity.BodyBuilder replay = ResponseEntity.status(stored.statusCode())
+                    .header("Idempotent-Replayed", "true");
+            return stored.body() != null
+                    ? replay.contentType(MediaType.APPLICATION_JSON).body(stored.body())
+                    : replay.build();
+        }
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            idempotencyStore.release(key);
+            throw e;
+        }
+        if (response.getStatusCode().is5xxServerError()) {
+            idempotencyStore.release(key);
+            return response;
+        }
+        byte[] body = null;
+        try {
+            body = response.getBody() != null ? objectMapper.writeValueAsBytes(response.getBody()) : null;
+        } catch (IOException e) {
+            // The write has happened either way; a retry replays the status alone rather than writing again
+        }
+        idempotencyStore.complete(key, new IdempotencyStore.StoredResponse(fingerprint, response.getStatusCode().value(), body));
+        return response;
+    }
 }
@@ -0,0 +1,128 @@
+package com.hotelmanagement.tableservice.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Cold copy of a finished (COMPLETED, CANCELLED or NO_SHOW) booking, moved out of table_bookings by
+ * BookingArchiver. The table is kept as plain id/number columns so archived rows never pin
+ * or join against the live restaurant_tables set.
+ */
+@Entity
+@Table(name = "table_bookings_archive")
+public class ArchivedBooking {
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "customer_name", nullable = false)
+    private String customerName;
+    
+    @Column(name = "customer_phone", nullable = false)
+    private String customerPhone;
+    
+    @Column(name = "party_size", nullable = false)
+    private Integer partySize;
+    
+    @Column(name = "booking_time", nullable = false)
+    private LocalDateTime bookingTime;
+    
+    @Column(name = "table_id")
+    private Long tableId;
+    
+    @Column(name = "table_number")
+    private Integer tableNumber;
+    
+    @Column(name = "joined_table_ids")
+    private String joinedTableIds;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TableBooking.BookingStatus status;
+    
+    @Column(name = "estimated_wait_time")
+    private Integer estimatedWaitTime;
+    
+    @Column(name = "actual_seat_time")
+    private LocalDateTime actualSeatTime;
+    
+    @Column(name = "checkout_time")
+    private LocalDateTime checkoutTime;
+    
+    @Column(name = "special_requests")
+    private String specialRequests;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public String getCustomerName() {
+        return customerName;
+    }
+    
+    public String getCustomerPhone() {
+        return customerPhone;
+    }
+    
+    public Integer getPartySize() {
+        return partySize;
+    }
+    
+    public LocalDateTime getBookingTime() {
+        return bookingTime;
+    }
+    
+    public Long getTableId() {
+        return tableId;
+    }
+    
+    public Integer getTableNumber() {
+        return tableNumber;
+    }
+    
+    public String getJoinedTableIds() {
+        return joinedTableIds;
+    }
+    
+    public TableBooking.BookingStatus getStatus() {
+        return status;
+    }
+    
+    public Integer getEstimatedWaitTime() {
+        return estimatedWaitTime;
+    }
+    
+    public LocalDateTime getActualSeatTime() {
+        return actualSeatTime;
+    }
+    
+    public LocalDateTime getCheckoutTime() {
+        return checkoutTime;
+    }
+    
+    public String getSpecialRequests() {
+        return specialRequests;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
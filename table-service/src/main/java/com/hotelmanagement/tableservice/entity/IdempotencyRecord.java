@@ -0,0 +1,86 @@
+package com.hotelmanagement.tableservice.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Durable copy of a response recorded under an Idempotency-Key, so a replay that reaches
+ * another instance (or this one after a restart) still gets the original answer.
+ * A null status code marks a request that is still being processed.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+    
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+    
+    @Column(nullable = false)
+    private String fingerprint;
+    
+    @Column(name = "status_code")
+    private Integer statusCode;
+    
+    @Column(name = "response_body", columnDefinition = "mediumblob")
+    private byte[] responseBody;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    // Constructors
+    public IdempotencyRecord() {
+    }
+    
+    // Getters and Setters
+    public String getKey() {
+        return key;
+    }
+    
+    public void setKey(String key) {
+        this.key = key;
+    }
+    
+    public String getFingerprint() {
+        return fingerprint;
+    }
+    
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+    
+    public Integer getStatusCode() {
+        return statusCode;
+    }
+    
+    public void setStatusCode(Integer statusCode) {
+        this.statusCode = statusCode;
+    }
+    
+    public byte[] getResponseBody() {
+        return responseBody;
+    }
+    
+    public void setResponseBody(byte[] responseBody) {
+        this.responseBody = responseBody;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,30 @@
+package com.hotelmanagement.tableservice.entity;
+
+/**
+ * Canonical form for customer phone numbers: digits only, with a leading '+' kept for
+ * international numbers. "555-123-4567" and "(555) 1234567" both become "5551234567",
+ * so lookups and the customer_phone indexes match on equality.
+ */
+public final class PhoneNumbers {
+    
+    private PhoneNumbers() {
+    }
+    
+    public static String normalize(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        String trimmed = phone.trim();
+        StringBuilder normalized = new StringBuilder(trimmed.length());
+        if (trimmed.startsWith("+")) {
+            normalized.append('+');
+        }
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c >= '0' && c <= '9') {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+}
@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 public class RestaurantTable {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "restaurant_tables_seq")
+    @SequenceGenerator(name = "restaurant_tables_seq", sequenceName = "restaurant_tables_seq", allocationSize = 50)
     private Long id;
     
     @NotNull(message = "Table number is required")
@@ -26,9 +27,17 @@ public class RestaurantTable {
     @Column(nullable = false)
     private TableStatus status = TableStatus.AVAILABLE;
     
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
     @Column(name = "location_description")
     private String locationDescription;
     
+    // Comma-separated numbers of tables in the same location this one can be pushed together with
+    @Column(name = "adjacent_table_numbers")
+    private String adjacentTableNumbers;
+    
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
@@ -92,6 +101,22 @@ public class RestaurantTable {
         this.locationDescription = locationDescription;
     }
     
+    public String getAdjacentTableNumbers() {
+        return adjacentTableNumbers;
+    }
+    
+    public void setAdjacentTableNumbers(String adjacentTableNumbers) {
+        this.adjacentTableNumbers = adjacentTableNumbers;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
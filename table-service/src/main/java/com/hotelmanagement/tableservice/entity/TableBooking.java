@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 public class TableBooking {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "table_bookings_seq")
+    @SequenceGenerator(name = "table_bookings_seq", sequenceName = "table_bookings_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Customer name is required")
@@ -33,6 +34,10 @@ public class TableBooking {
     @JoinColumn(name = "table_id")
     private RestaurantTable table;
     
+    // Comma-separated ids of the extra tables pushed together with table for a large party
+    @Column(name = "joined_table_ids")
+    private String joinedTableIds;
+    
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private BookingStatus status = BookingStatus.WAITING;
@@ -46,6 +51,10 @@ public class TableBooking {
     @Column(name = "checkout_time")
     private LocalDateTime checkoutTime;
     
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
     @Column(name = "special_requests")
     private String specialRequests;
     
@@ -56,7 +65,7 @@ public class TableBooking {
     private LocalDateTime updatedAt;
     
     public enum BookingStatus {
-        WAITING, SEATED, COMPLETED, CANCELLED
+        WAITING, SEATED, COMPLETED, CANCELLED, NO_SHOW
     }
     
     // Constructors
@@ -67,7 +76,7 @@ public class TableBooking {
     public TableBooking(String customerName, String customerPhone, Integer partySize, LocalDateTime bookingTime) {
         this();
         this.customerName = customerName;
-        this.customerPhone = customerPhone;
+        this.customerPhone = PhoneNumbers.normalize(customerPhone);
         this.partySize = partySize;
         this.bookingTime = bookingTime;
     }
@@ -94,7 +103,7 @@ public class TableBooking {
     }
     
     public void setCustomerPhone(String customerPhone) {
-        this.customerPhone = customerPhone;
+        this.customerPhone = PhoneNumbers.normalize(customerPhone);
     }
     
     public Integer getPartySize() {
@@ -153,6 +162,14 @@ public class TableBooking {
         this.checkoutTime = checkoutTime;
     }
     
+    public String getJoinedTableIds() {
+        return joinedTableIds;
+    }
+    
+    public void setJoinedTableIds(String joinedTableIds) {
+        this.joinedTableIds = joinedTableIds;
+    }
+    
     public String getSpecialRequests() {
         return specialRequests;
     }
@@ -161,6 +178,14 @@ public class TableBooking {
         this.specialRequests = specialRequests;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,177 @@
+package com.hotelmanagement.tableservice.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "table_reservations")
+public class TableReservation {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "table_reservations_seq")
+    @SequenceGenerator(name = "table_reservations_seq", sequenceName = "table_reservations_seq", allocationSize = 50)
+    private Long id;
+    
+    // Chosen automatically (best fit) when not supplied
+    @Column(name = "table_id", nullable = false)
+    private Long tableId;
+    
+    @NotBlank(message = "Customer name is required")
+    @Column(name = "customer_name", nullable = false)
+    private String customerName;
+    
+    @NotBlank(message = "Customer phone is required")
+    @Column(name = "customer_phone", nullable = false)
+    private String customerPhone;
+    
+    @NotNull(message = "Party size is required")
+    @Min(value = 1, message = "Party size must be at least 1")
+    @Column(name = "party_size", nullable = false)
+    private Integer partySize;
+    
+    @NotNull(message = "Start time is required")
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+    
+    @NotNull(message = "Duration is required")
+    @Min(value = 15, message = "Duration must be at least 15 minutes")
+    @Max(value = 360, message = "Duration must be at most 360 minutes")
+    @Column(name = "duration_minutes", nullable = false)
+    private Integer durationMinutes;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReservationStatus status = ReservationStatus.CONFIRMED;
+    
+    @Column(name = "special_requests")
+    private String specialRequests;
+    
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    public enum ReservationStatus {
+        CONFIRMED, CANCELLED
+    }
+    
+    // Constructors
+    public TableReservation() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public LocalDateTime getEndTime() {
+        return startTime.plusMinutes(durationMinutes);
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getTableId() {
+        return tableId;
+    }
+    
+    public void setTableId(Long tableId) {
+        this.tableId = tableId;
+    }
+    
+    public String getCustomerName() {
+        return customerName;
+    }
+    
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+    
+    public String getCustomerPhone() {
+        return customerPhone;
+    }
+    
+    public void setCustomerPhone(String customerPhone) {
+        this.customerPhone = PhoneNumbers.normalize(customerPhone);
+    }
+    
+    public Integer getPartySize() {
+        return partySize;
+    }
+    
+    public void setPartySize(Integer partySize) {
+        this.partySize = partySize;
+    }
+    
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+    
+    public Integer getDurationMinutes() {
+        return durationMinutes;
+    }
+    
+    public void setDurationMinutes(Integer durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
+    
+    public ReservationStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ReservationStatus status) {
+        this.status = status;
+    }
+    
+    public String getSpecialRequests() {
+        return specialRequests;
+    }
+    
+    public void setSpecialRequests(String specialRequests) {
+        this.specialRequests = specialRequests;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
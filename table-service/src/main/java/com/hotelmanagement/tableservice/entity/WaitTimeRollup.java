@@ -0,0 +1,102 @@
+package com.hotelmanagement.tableservice.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One hour of one wait-time metric, stored as a serialized WaitTimeHistogram.
+ * The id is derived from metric and hour so that re-flushing an hour overwrites its row.
+ */
+@Entity
+@Table(name = "wait_time_rollups")
+public class WaitTimeRollup {
+    
+    @Id
+    private String id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Metric metric;
+    
+    @Column(name = "hour_start", nullable = false)
+    private LocalDateTime hourStart;
+    
+    @Column(name = "sample_count", nullable = false)
+    private Long sampleCount;
+    
+    @Column(nullable = false, length = 4096)
+    private byte[] histogram;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    public enum Metric {
+        SEAT_WAIT, TABLE_TURN
+    }
+    
+    // Constructors
+    public WaitTimeRollup() {
+    }
+    
+    public WaitTimeRollup(Metric metric, LocalDateTime hourStart, Long sampleCount, byte[] histogram) {
+        this.id = idFor(metric, hourStart);
+        this.metric = metric;
+        this.hourStart = hourStart;
+        this.sampleCount = sampleCount;
+        this.histogram = histogram;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    public static String idFor(Metric metric, LocalDateTime hourStart) {
+        return metric + "@" + hourStart;
+    }
+    
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public Metric getMetric() {
+        return metric;
+    }
+    
+    public void setMetric(Metric metric) {
+        this.metric = metric;
+    }
+    
+    public LocalDateTime getHourStart() {
+        return hourStart;
+    }
+    
+    public void setHourStart(LocalDateTime hourStart) {
+        this.hourStart = hourStart;
+    }
+    
+    public Long getSampleCount() {
+        return sampleCount;
+    }
+    
+    public void setSampleCount(Long sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+    
+    public byte[] getHistogram() {
+        return histogram;
+    }
+    
+    public void setHistogram(byte[] histogram) {
+        this.histogram = histogram;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
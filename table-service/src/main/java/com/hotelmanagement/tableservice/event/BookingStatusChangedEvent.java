@@ -0,0 +1,27 @@
+package com.hotelmanagement.tableservice.event;
+
+import com.hotelmanagement.tableservice.entity.TableBooking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by TableService after a booking has been created or has moved to a new status.
+ * previousStatus is null for newly created bookings.
+ */
+public record BookingStatusChangedEvent(Long bookingId,
+                                        Long tableId,
+                                        Integer partySize,
+                                        String customerPhone,
+                                        TableBooking.BookingStatus previousStatus,
+                                        TableBooking.BookingStatus status,
+                                        LocalDateTime bookingTime,
+                                        LocalDateTime actualSeatTime,
+                                        LocalDateTime checkoutTime) {
+
+    public static BookingStatusChangedEvent of(TableBooking booking, TableBooking.BookingStatus previousStatus) {
+        Long tableId = booking.getTable() != null ? booking.getTable().getId() : null;
+        return new BookingStatusChangedEvent(booking.getId(), tableId, booking.getPartySize(), booking.getCustomerPhone(),
+                previousStatus, booking.getStatus(), booking.getBookingTime(), booking.getActualSeatTime(),
+                booking.getCheckoutTime());
+    }
+}
@@ -0,0 +1,20 @@
+package com.hotelmanagement.tableservice.event;
+
+import com.hotelmanagement.tableservice.entity.TableReservation;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by ReservationService after a reservation has been created or cancelled.
+ */
+public record ReservationChangedEvent(Long reservationId,
+                                      Long tableId,
+                                      LocalDateTime startTime,
+                                      LocalDateTime endTime,
+                                      TableReservation.ReservationStatus status) {
+
+    public static ReservationChangedEvent of(TableReservation reservation) {
+        return new ReservationChangedEvent(reservation.getId(), reservation.getTableId(), reservation.getStartTime(),
+                reservation.getEndTime(), reservation.getStatus());
+    }
+}
@@ -0,0 +1,8 @@
+package com.hotelmanagement.tableservice.event;
+
+/**
+ * Published by TableService after a table has been created or edited (capacity, location or
+ * adjacency), as opposed to a plain status change.
+ */
+public record TableLayoutChangedEvent(Long tableId) {
+}
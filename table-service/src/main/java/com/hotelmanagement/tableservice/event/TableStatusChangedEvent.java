@@ -0,0 +1,19 @@
+package com.hotelmanagement.tableservice.event;
+
+import com.hotelmanagement.tableservice.entity.RestaurantTable;
+
+/**
+ * Published by TableService after a table has been created or its status has changed.
+ * previousStatus is null when the table is new or its prior state is unknown.
+ */
+public record TableStatusChangedEvent(Long tableId,
+                                      Integer tableNumber,
+                                      Integer capacity,
+                                      RestaurantTable.TableStatus previousStatus,
+                                      RestaurantTable.TableStatus status) {
+
+    public static TableStatusChangedEvent of(RestaurantTable table, RestaurantTable.TableStatus previousStatus) {
+        return new TableStatusChangedEvent(table.getId(), table.getTableNumber(), table.getCapacity(),
+                previousStatus, table.getStatus());
+    }
+}
@@ -0,0 +1,28 @@
+package com.hotelmanagement.tableservice.repository;
+
+import com.hotelmanagement.tableservice.entity.ArchivedBooking;
+import com.hotelmanagement.tableservice.entity.TableBooking;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long>, ArchivedBookingRepositoryCustom {
+    
+    @Query("SELECT new com.hotelmanagement.tableservice.repository.CustomerVisit(b.customerPhone, b.status, b.partySize, b.bookingTime) FROM ArchivedBooking b WHERE b.status IN :statuses")
+    List<CustomerVisit> findCustomerVisits(List<TableBooking.BookingStatus> statuses);
+    
+    @Modifying
+    @Query(value = "INSERT INTO table_bookings_archive (id, customer_name, customer_phone, party_size, booking_time, " +
+                   "table_id, table_number, joined_table_ids, status, estimated_wait_time, actual_seat_time, checkout_time, special_requests, " +
+                   "created_at, updated_at, archived_at) " +
+                   "SELECT b.id, b.customer_name, b.customer_phone, b.party_size, b.booking_time, b.table_id, t.table_number, " +
+                   "b.joined_table_ids, b.status, b.estimated_wait_time, b.actual_seat_time, b.checkout_time, b.special_requests, b.created_at, " +
+                   "b.updated_at, :archivedAt FROM table_bookings b LEFT JOIN restaurant_tables t ON t.id = b.table_id " +
+                   "WHERE b.id IN (:ids)", nativeQuery = true)
+    int copyFromLive(List<Long> ids, LocalDateTime archivedAt);
+}
@@ -0,0 +1,13 @@
+package com.hotelmanagement.tableservice.repository;
+
+import com.hotelmanagement.tableservice.entity.ArchivedBooking;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ArchivedBookingRepositoryCustom {
+    
+    List<ArchivedBooking> findPage(BookingFilter filter, BookingCursor after, boolean descending, int limit);
+    
+    Stream<ArchivedBooking> streamAll(BookingFilter filter, int fetchSize);
+}
@@ -0,0 +1,24 @@
+package com.hotelmanagement.tableservice.repository;
+
+import com.hotelmanagement.tableservice.entity.ArchivedBooking;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ArchivedBookingRepositoryImpl implements ArchivedBookingRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<ArchivedBooking> findPage(BookingFilter filter, BookingCursor after, boolean descending, int limit) {
+        return KeysetQueries.findPage(entityManager, ArchivedBooking.class, null, filter, after, descending, limit);
+    }
+    
+    @Override
+    public Stream<ArchivedBooking> streamAll(BookingFilter filter, int fetchSize) {
+        return KeysetQueries.streamAll(entityManager, ArchivedBooking.class, null, filter, fetchSize);
+    }
+}
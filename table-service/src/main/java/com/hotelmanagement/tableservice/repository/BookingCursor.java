@@ -0,0 +1,27 @@
+package com.hotelmanagement.tableservice.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset position in a booking listing ordered by (bookingTime, id).
+ * Encoded as an opaque URL-safe token so clients do not depend on its layout.
+ */
+public record BookingCursor(LocalDateTime bookingTime, Long id) {
+    
+    public String encode() {
+        String raw = bookingTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static BookingCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new BookingCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid booking cursor: " + token);
+        }
+    }
+}
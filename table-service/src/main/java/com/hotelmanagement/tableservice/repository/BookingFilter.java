@@ -0,0 +1,12 @@
+package com.hotelmanagement.tableservice.repository;
+
+import com.hotelmanagement.tableservice.entity.TableBooking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters for booking listings; null fields are not applied.
+ * from is inclusive and to is exclusive, both on bookingTime.
+ */
+public record BookingFilter(TableBooking.BookingStatus status, LocalDateTime from, LocalDateTime to) {
+}
@@ -0,0 +1,65 @@
+package com.hotelmanagement.tableservice.repository;
+
+import com.hotelmanagement.tableservice.entity.ArchivedBooking;
+import com.hotelmanagement.tableservice.entity.TableBooking;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Read access to booking history across the live table_bookings (hot) set and the
+ * table_bookings_archive (cold) set. Live workflow queries keep using TableBookingRepository
+ * and only ever touch the hot set; anything historical goes through here.
+ */
+@Repository
+public class BookingStore {
+    
+    private static final Comparator<BookingView> VIEW_KEYSET_ORDER =
+            Comparator.comparing(BookingView::bookingTime).thenComparing(BookingView::id);
+    
+    @Autowired
+    private TableBookingRepository bookingRepository;
+    
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+    
+    public Optional<BookingView> findViewById(Long id) {
+        Optional<BookingView> live = bookingRepository.findViewById(id);
+        if (live.isPresent()) {
+            return live;
+        }
+        return archivedBookingRepository.findById(id).map(BookingView::of);
+    }
+    
+    // Finished visits across both sets, for rebuilding CustomerHistoryIndex
+    public List<CustomerVisit> findCustomerVisits(List<TableBooking.BookingStatus> statuses) {
+        List<CustomerVisit> visits = new ArrayList<>(archivedBookingRepository.findCustomerVisits(statuses));
+        visits.addAll(bookingRepository.findCustomerVisits(statuses));
+        return visits;
+    }
+    
+    // Reads one page from each set and merges them, so the cursor works across the hot/cold boundary
+    public List<BookingView> findPage(BookingFilter filter, BookingCursor after, boolean descending, int limit) {
+        List<BookingView> merged = new ArrayList<>();
+        for (TableBooking live : bookingRepository.findPage(filter, after, descending, limit)) {
+            merged.add(BookingView.of(live));
+        }
+        for (ArchivedBooking archived : archivedBookingRepository.findPage(filter, after, descending, limit)) {
+            merged.add(BookingView.of(archived));
+        }
+        merged.sort(descending ? VIEW_KEYSET_ORDER.reversed() : VIEW_KEYSET_ORDER);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+    
+    // Archived history first, then live rows; each part is in (bookingTime, id) order
+    public Stream<BookingView> streamAll(BookingFilter filter, int fetchSize) {
+        return Stream.concat(
+                archivedBookingRepository.streamAll(filter, fetchSize).map(BookingView::of),
+                bookingRepository.streamAll(filter, fetchSize).map(BookingView::of));
+    }
+}
@@ -0,0 +1,46 @@
+package com.hotelmanagement.tableservice.repository;
+
+import com.hotelmanagement.tableservice.entity.ArchivedBooking;
+import com.hotelmanagement.tableservice.entity.TableBooking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat read model returned by the booking read endpoints. The table is reduced to its id and
+ * number, so the JSON shape is the same for live and archived bookings and serializing it never
+ * touches a lazy association.
+ */
+public record BookingView(Long id,
+                          String customerName,
+                          String customerPhone,
+                          Integer partySize,
+                          LocalDateTime bookingTime,
+                          Long tableId,
+                          Integer tableNumber,
+                          String joinedTableIds,
+                          TableBooking.BookingStatus status,
+                          Integer estimatedWaitTime,
+                          LocalDateTime actualSeatTime,
+                          LocalDateTime checkoutTime,
+                          String specialRequests,
+                          LocalDateTime createdAt,
+                          LocalDateTime updatedAt) {
+
+    // Expects the table to be fetch-joined (or null); a lazy proxy would be initialized here
+    public static BookingView of(TableBooking booking) {
+        return new BookingView(booking.getId(), booking.getCustomerName(), booking.getCustomerPhone(),
+                booking.getPartySize(), booking.getBookingTime(),
+                booking.getTable() != null ? booking.getTable().getId() : null,
+                booking.getTable() != null ? booking.getTable().getTableNumber() : null, booking.getJoinedTableIds(),
+                booking.getStatus(), booking.getEstimatedWaitTime(), booking.getActualSeatTime(),
+                booking.getCheckoutTime(), booking.getSpecialRequests(), booking.getCreatedAt(), booking.getUpdatedAt());
+    }
+
+    public static BookingView of(ArchivedBooking archived) {
+        return new BookingView(archived.getId(), archived.getCustomerName(), archived.getCustomerPhone(),
+                archived.getPartySize(), archived.getBookingTime(), archived.getTableId(), archived.getTableNumber(),
+                archived.getJoinedTableIds(), archived.getStatus(), archived.getEstimatedWaitTime(),
+                archived.getActualSeatTime(), archived.getCheckoutTime(), archived.getSpecialRequests(),
+                archived.getCreatedAt(), archived.getUpdatedAt());
+    }
+}
@@ -0,0 +1,12 @@
+package com.hotelmanagement.tableservice.repository;
+
+import com.hotelmanagement.tableservice.entity.TableBooking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Minimal booking projection used to build customer histories without loading whole entities.
+ */
+public record CustomerVisit(String customerPhone, TableBooking.BookingStatus status, Integer partySize,
+                            LocalDateTime bookingTime) {
+}
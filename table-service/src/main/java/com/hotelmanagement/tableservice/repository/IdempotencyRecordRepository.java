@@ -0,0 +1,39 @@
+package com.hotelmanagement.tableservice.repository;
+
+import com.hotelmanagement.tableservice.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    
+    // Plain INSERT rather than save(): a duplicate key must fail instead of merging into the existing row
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, fingerprint, created_at, expires_at) " +
+           "VALUES (:key, :fingerprint, :createdAt, :expiresAt)", nativeQuery = true)
+    int insertClaim(@Param("key") String key, @Param("fingerprint") String fingerprint,
+                    @Param("createdAt") LocalDateTime createdAt, @Param("expiresAt") LocalDateTime expiresAt);
+    
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.statusCode = :statusCode, r.responseBody = :responseBody " +
+           "WHERE r.key = :key")
+    int complete(@Param("key") String key, @Param("statusCode") Integer statusCode,
+                 @Param("responseBody") byte[] responseBody);
+    
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.statusCode IS NULL")
+    int deleteClaim(@Param("key") String key);
+    
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.expiresAt < :now")
+    int deleteExpired(@Param("key") String key, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteAllExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,80 @@
+package com.hotelmanagement.tableservice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Criteria-built listing queries shared by the live and archived booking repositories.
+ * Both entities expose id, bookingTime and status. Only the filters actually supplied become
+ * predicates, so the database sees a plain range scan instead of "(:param IS NULL OR ...)".
+ */
+final class KeysetQueries {
+    
+    private KeysetQueries() {
+    }
+    
+    static <T> List<T> findPage(EntityManager entityManager, Class<T> type, String fetchAssociation,
+                                BookingFilter filter, BookingCursor after, boolean descending, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> booking = query.from(type);
+        if (fetchAssociation != null) {
+            booking.fetch(fetchAssociation, JoinType.LEFT);
+        }
+        
+        List<Predicate> predicates = filterPredicates(cb, booking, filter);
+        if (after != null) {
+            predicates.add(descending
+                    ? cb.or(cb.lessThan(booking.get("bookingTime"), after.bookingTime()),
+                            cb.and(cb.equal(booking.get("bookingTime"), after.bookingTime()), cb.lessThan(booking.get("id"), after.id())))
+                    : cb.or(cb.greaterThan(booking.get("bookingTime"), after.bookingTime()),
+                            cb.and(cb.equal(booking.get("bookingTime"), after.bookingTime()), cb.greaterThan(booking.get("id"), after.id()))));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(descending
+                ? List.of(cb.desc(booking.get("bookingTime")), cb.desc(booking.get("id")))
+                : List.of(cb.asc(booking.get("bookingTime")), cb.asc(booking.get("id"))));
+        
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+    
+    static <T> Stream<T> streamAll(EntityManager entityManager, Class<T> type, String fetchAssociation,
+                                   BookingFilter filter, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> booking = query.from(type);
+        if (fetchAssociation != null) {
+            booking.fetch(fetchAssociation, JoinType.LEFT);
+        }
+        query.where(filterPredicates(cb, booking, filter).toArray(new Predicate[0]));
+        query.orderBy(cb.asc(booking.get("bookingTime")), cb.asc(booking.get("id")));
+        
+        return entityManager.createQuery(query)
+                .setHint("org.hibernate.fetchSize", fetchSize)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream()
+                .peek(entityManager::detach);
+    }
+    
+    private static List<Predicate> filterPredicates(CriteriaBuilder cb, Root<?> booking, BookingFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.status() != null) {
+            predicates.add(cb.equal(booking.get("status"), filter.status()));
+        }
+        if (filter.from() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(booking.get("bookingTime"), filter.from()));
+        }
+        if (filter.to() != null) {
+            predicates.add(cb.lessThan(booking.get("bookingTime"), filter.to()));
+        }
+        return predicates;
+    }
+}
@@ -2,9 +2,11 @@ package com.hotelmanagement.tableservice.repository;
 
 import com.hotelmanagement.tableservice.entity.RestaurantTable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,9 +19,20 @@ public interface RestaurantTableRepository extends JpaRepository<RestaurantTable
     
     Optional<RestaurantTable> findByTableNumber(Integer tableNumber);
     
+    long countByStatus(RestaurantTable.TableStatus status);
+    
     @Query("SELECT t FROM RestaurantTable t WHERE t.status = 'AVAILABLE' AND t.capacity >= :minCapacity ORDER BY t.capacity ASC")
     List<RestaurantTable> findAvailableTablesByMinCapacity(Integer minCapacity);
     
+    @Query("SELECT t.id FROM RestaurantTable t WHERE t.status = :status")
+    List<Long> findIdsByStatus(RestaurantTable.TableStatus status);
+    
+    List<RestaurantTable> findByIdInAndUpdatedAt(List<Long> ids, LocalDateTime updatedAt);
+    
+    @Modifying
+    @Query("UPDATE RestaurantTable t SET t.status = :to, t.updatedAt = :updatedAt, t.version = t.version + 1 WHERE t.id IN :ids AND t.status = :from")
+    int updateStatusByIdIn(List<Long> ids, RestaurantTable.TableStatus from, RestaurantTable.TableStatus to, LocalDateTime updatedAt);
+    
     @Query("SELECT COUNT(t) FROM RestaurantTable t WHERE t.status = 'AVAILABLE'")
     Long countAvailableTables();
     
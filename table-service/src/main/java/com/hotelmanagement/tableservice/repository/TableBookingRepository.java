@@ -1,23 +1,35 @@
 package com.hotelmanagement.tableservice.repository;
 
 import com.hotelmanagement.tableservice.entity.TableBooking;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TableBookingRepository extends JpaRepository<TableBooking, Long> {
+public interface TableBookingRepository extends JpaRepository<TableBooking, Long>, TableBookingRepositoryCustom {
     
     List<TableBooking> findByStatus(TableBooking.BookingStatus status);
     
     List<TableBooking> findByCustomerPhone(String customerPhone);
     
+    @Query("SELECT new com.hotelmanagement.tableservice.repository.CustomerVisit(b.customerPhone, b.status, b.partySize, b.bookingTime) FROM TableBooking b WHERE b.status IN :statuses")
+    List<CustomerVisit> findCustomerVisits(List<TableBooking.BookingStatus> statuses);
+    
     @Query("SELECT b FROM TableBooking b WHERE b.status = 'WAITING' ORDER BY b.bookingTime ASC")
     List<TableBooking> findWaitingBookingsOrderByTime();
     
+    @Query("SELECT new com.hotelmanagement.tableservice.repository.BookingView(b.id, b.customerName, b.customerPhone, b.partySize, b.bookingTime, t.id, t.tableNumber, b.joinedTableIds, b.status, b.estimatedWaitTime, b.actualSeatTime, b.checkoutTime, b.specialRequests, b.createdAt, b.updatedAt) FROM TableBooking b LEFT JOIN b.table t WHERE b.status = 'WAITING' ORDER BY b.bookingTime ASC")
+    List<BookingView> findWaitingBookingViews();
+    
+    @Query("SELECT new com.hotelmanagement.tableservice.repository.BookingView(b.id, b.customerName, b.customerPhone, b.partySize, b.bookingTime, t.id, t.tableNumber, b.joinedTableIds, b.status, b.estimatedWaitTime, b.actualSeatTime, b.checkoutTime, b.specialRequests, b.createdAt, b.updatedAt) FROM TableBooking b LEFT JOIN b.table t WHERE b.id = :id")
+    Optional<BookingView> findViewById(Long id);
+    
     @Query("SELECT b FROM TableBooking b WHERE b.status = 'SEATED' AND b.table.id = :tableId")
     List<TableBooking> findSeatedBookingsByTableId(Long tableId);
     
@@ -29,4 +41,22 @@ public interface TableBookingRepository extends JpaRepository<TableBooking, Long
     
     @Query("SELECT b FROM TableBooking b WHERE b.bookingTime BETWEEN :startTime AND :endTime ORDER BY b.bookingTime ASC")
     List<TableBooking> findBookingsBetweenTimes(LocalDateTime startTime, LocalDateTime endTime);
+    
+    @Query("SELECT b.id FROM TableBooking b WHERE b.status IN :statuses AND b.bookingTime < :cutoff ORDER BY b.id ASC")
+    List<Long> findIdsToArchive(List<TableBooking.BookingStatus> statuses, LocalDateTime cutoff, Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM TableBooking b WHERE b.id IN :ids")
+    int deleteByIdIn(List<Long> ids);
+    
+    @Query("SELECT b.id FROM TableBooking b WHERE b.status = :status AND b.bookingTime < :cutoff ORDER BY b.id ASC")
+    List<Long> findIdsByStatusBookedBefore(TableBooking.BookingStatus status, LocalDateTime cutoff, Pageable pageable);
+    
+    // Set-based transition; rows another request changed in the meantime no longer match "from" and are skipped
+    @Modifying
+    @Query("UPDATE TableBooking b SET b.status = :to, b.updatedAt = :updatedAt, b.version = b.version + 1 WHERE b.id IN :ids AND b.status = :from")
+    int updateStatusByIdIn(List<Long> ids, TableBooking.BookingStatus from, TableBooking.BookingStatus to, LocalDateTime updatedAt);
+    
+    @Query("SELECT new com.hotelmanagement.tableservice.repository.BookingView(b.id, b.customerName, b.customerPhone, b.partySize, b.bookingTime, t.id, t.tableNumber, b.joinedTableIds, b.status, b.estimatedWaitTime, b.actualSeatTime, b.checkoutTime, b.specialRequests, b.createdAt, b.updatedAt) FROM TableBooking b LEFT JOIN b.table t WHERE b.id IN :ids AND b.updatedAt = :updatedAt")
+    List<BookingView> findViewsByIdInAndUpdatedAt(List<Long> ids, LocalDateTime updatedAt);
 }
@@ -0,0 +1,15 @@
+package com.hotelmanagement.tableservice.repository;
+
+import com.hotelmanagement.tableservice.entity.TableBooking;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TableBookingRepositoryCustom {
+    
+    // One page in (bookingTime, id) order, starting strictly after the cursor when one is given
+    List<TableBooking> findPage(BookingFilter filter, BookingCursor after, boolean descending, int limit);
+    
+    // Must be consumed inside a transaction; rows are detached as they are read
+    Stream<TableBooking> streamAll(BookingFilter filter, int fetchSize);
+}
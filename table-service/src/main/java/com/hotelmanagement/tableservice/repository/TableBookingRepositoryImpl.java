@@ -0,0 +1,24 @@
+package com.hotelmanagement.tableservice.repository;
+
+import com.hotelmanagement.tableservice.entity.TableBooking;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class TableBookingRepositoryImpl implements TableBookingRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<TableBooking> findPage(BookingFilter filter, BookingCursor after, boolean descending, int limit) {
+        return KeysetQueries.findPage(entityManager, TableBooking.class, "table", filter, after, descending, limit);
+    }
+    
+    @Override
+    public Stream<TableBooking> streamAll(BookingFilter filter, int fetchSize) {
+        return KeysetQueries.streamAll(entityManager, TableBooking.class, "table", filter, fetchSize);
+    }
+}
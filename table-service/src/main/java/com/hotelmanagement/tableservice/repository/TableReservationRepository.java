@@ -0,0 +1,19 @@
+package com.hotelmanagement.tableservice.repository;
+
+import com.hotelmanagement.tableservice.entity.TableReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TableReservationRepository extends JpaRepository<TableReservation, Long> {
+    
+    List<TableReservation> findByStatusAndStartTimeGreaterThanEqual(TableReservation.ReservationStatus status, LocalDateTime fromTime);
+    
+    List<TableReservation> findByStartTimeBetweenOrderByStartTimeAsc(LocalDateTime startTime, LocalDateTime endTime);
+    
+    List<TableReservation> findByTableIdAndStatusAndStartTimeBetween(Long tableId, TableReservation.ReservationStatus status,
+                                                                      LocalDateTime fromTime, LocalDateTime toTime);
+}
@@ -0,0 +1,14 @@
+package com.hotelmanagement.tableservice.repository;
+
+import com.hotelmanagement.tableservice.entity.WaitTimeRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WaitTimeRollupRepository extends JpaRepository<WaitTimeRollup, String> {
+    
+    List<WaitTimeRollup> findByHourStartGreaterThanEqual(LocalDateTime fromHour);
+}
@@ -0,0 +1,69 @@
+package com.hotelmanagement.tableservice.service;
+
+import com.hotelmanagement.tableservice.entity.TableBooking;
+import com.hotelmanagement.tableservice.repository.ArchivedBookingRepository;
+import com.hotelmanagement.tableservice.repository.TableBookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Moves finished (COMPLETED, CANCELLED or NO_SHOW) bookings older than the configured age from
+ * table_bookings into table_bookings_archive, one chunk per transaction (copy with INSERT ... SELECT, then delete).
+ */
+@Component
+public class BookingArchiver {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BookingArchiver.class);
+    
+    private static final List<TableBooking.BookingStatus> FINISHED =
+            List.of(TableBooking.BookingStatus.COMPLETED, TableBooking.BookingStatus.CANCELLED, TableBooking.BookingStatus.NO_SHOW);
+    
+    @Autowired
+    private TableBookingRepository bookingRepository;
+    
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${table-service.archive.min-age-days:30}")
+    private int minAgeDays;
+    
+    @Value("${table-service.archive.batch-size:500}")
+    private int batchSize;
+    
+    @Scheduled(fixedDelayString = "${table-service.archive.interval-ms:3600000}",
+               initialDelayString = "${table-service.archive.interval-ms:3600000}")
+    public void archiveFinishedBookings() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(minAgeDays, ChronoUnit.DAYS);
+        long start = System.currentTimeMillis();
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(tx -> {
+                List<Long> ids = bookingRepository.findIdsToArchive(FINISHED, cutoff, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                archivedBookingRepository.copyFromLive(ids, LocalDateTime.now());
+                return bookingRepository.deleteByIdIn(ids);
+            });
+            total += moved;
+        } while (moved == batchSize);
+        
+        if (total > 0) {
+            logger.info("Archived {} finished bookings older than {} in {} ms", total, cutoff, System.currentTimeMillis() - start);
+        }
+    }
+}
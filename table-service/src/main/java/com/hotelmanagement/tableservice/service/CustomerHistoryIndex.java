@@ -0,0 +1,79 @@
+package com.hotelmanagement.tableservice.service;
+
+import com.hotelmanagement.tableservice.entity.PhoneNumbers;
+import com.hotelmanagement.tableservice.entity.TableBooking;
+import com.hotelmanagement.tableservice.event.BookingStatusChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-customer visit summary keyed by normalized phone number, restored from the event journal
+ * (or, without one, from live and archived bookings) and then kept current from booking transitions. The host stand looks a
+ * customer up on every arrival, so reads are a single map lookup.
+ */
+@Component
+public class CustomerHistoryIndex {
+    
+    public record CustomerHistory(String customerPhone, int visits, Integer lastPartySize, LocalDateTime lastVisit,
+                                  int noShows) {
+        
+        static CustomerHistory empty(String customerPhone) {
+            return new CustomerHistory(customerPhone, 0, null, null, 0);
+        }
+        
+        CustomerHistory withVisit(Integer partySize, LocalDateTime bookingTime) {
+            boolean latest = lastVisit == null || !bookingTime.isBefore(lastVisit);
+            return new CustomerHistory(customerPhone, visits + 1, latest ? partySize : lastPartySize,
+                    latest ? bookingTime : lastVisit, noShows);
+        }
+        
+        CustomerHistory withNoShow() {
+            return new CustomerHistory(customerPhone, visits, lastPartySize, lastVisit, noShows + 1);
+        }
+    }
+    
+    static final List<TableBooking.BookingStatus> COUNTED =
+            List.of(TableBooking.BookingStatus.COMPLETED, TableBooking.BookingStatus.NO_SHOW);
+    
+    @Autowired
+    private EventJournal eventJournal;
+    
+    private final Map<String, CustomerHistory> histories = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void load() {
+        histories.putAll(eventJournal.copyState().customerHistories);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        if (event.previousStatus() != event.status()) {
+            record(histories, event.customerPhone(), event.status(), event.partySize(), event.bookingTime());
+        }
+    }
+    
+    public CustomerHistory getHistory(String customerPhone) {
+        String phone = PhoneNumbers.normalize(customerPhone);
+        CustomerHistory history = histories.get(phone);
+        return history != null ? history : CustomerHistory.empty(phone);
+    }
+    
+    // Shared with FloorState, which keeps the journaled copy of the same histories
+    static void record(Map<String, CustomerHistory> histories, String customerPhone, TableBooking.BookingStatus status,
+                       Integer partySize, LocalDateTime bookingTime) {
+        if (status == TableBooking.BookingStatus.COMPLETED) {
+            histories.merge(customerPhone, CustomerHistory.empty(customerPhone).withVisit(partySize, bookingTime),
+                    (current, ignored) -> current.withVisit(partySize, bookingTime));
+        } else if (status == TableBooking.BookingStatus.NO_SHOW) {
+            histories.merge(customerPhone, CustomerHistory.empty(customerPhone).withNoShow(),
+                    (current, ignored) -> current.withNoShow());
+        }
+    }
+}
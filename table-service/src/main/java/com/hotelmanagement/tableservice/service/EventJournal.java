@@ -0,0 +1,494 @@
+package com.hotelmanagement.tableservice.service;
+
+import com.hotelmanagement.tableservice.entity.RestaurantTable;
+import com.hotelmanagement.tableservice.entity.TableBooking;
+import com.hotelmanagement.tableservice.entity.TableReservation;
+import com.hotelmanagement.tableservice.event.BookingStatusChangedEvent;
+import com.hotelmanagement.tableservice.event.ReservationChangedEvent;
+import com.hotelmanagement.tableservice.event.TableStatusChangedEvent;
+import com.hotelmanagement.tableservice.repository.BookingStore;
+import com.hotelmanagement.tableservice.repository.CustomerVisit;
+import com.hotelmanagement.tableservice.repository.RestaurantTableRepository;
+import com.hotelmanagement.tableservice.repository.TableBookingRepository;
+import com.hotelmanagement.tableservice.repository.TableReservationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of table, booking and reservation transitions, written after each commit
+ * to memory-mapped segment files that roll over at a fixed size, plus periodic snapshots of the
+ * FloorState the transitions produce. On startup the latest snapshot is loaded and the records
+ * after it replayed, and the in-memory indexes and counters restore from that state instead of
+ * scanning the database. The restored state is checked against a handful of cheap queries first;
+ * a missing, corrupt, gapped or stale journal falls back to one database load, after which the
+ * journal starts over from a fresh snapshot.
+ *
+ * Record layout: length (int, written last so a torn append reads as end-of-data), sequence
+ * (long), type (byte), payload, CRC32 of sequence..payload (int).
+ */
+@Component
+public class EventJournal {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EventJournal.class);
+    
+    private static final byte TABLE_STATUS_CHANGED = 1;
+    private static final byte BOOKING_STATUS_CHANGED = 2;
+    private static final byte RESERVATION_CHANGED = 3;
+    
+    // "FLS2": enums are written by name; "FLS1" snapshots (by ordinal) are rejected and rebuilt from the database
+    private static final int SNAPSHOT_MAGIC = 0x464C5332;
+    private static final int RECORD_OVERHEAD = 4 + 8 + 1 + 4;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    
+    @Autowired
+    private RestaurantTableRepository tableRepository;
+    
+    @Autowired
+    private TableBookingRepository bookingRepository;
+    
+    @Autowired
+    private TableReservationRepository reservationRepository;
+    
+    @Autowired
+    private BookingStore bookingStore;
+    
+    @Value("${table-service.journal.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${table-service.journal.directory:data/journal}")
+    private String directory;
+    
+    @Value("${table-service.journal.segment-size-bytes:16777216}")
+    private int segmentSize;
+    
+    private FloorState state;
+    private long lastSequence;
+    private long snapshotSequence;
+    private FileChannel segmentChannel;
+    private MappedByteBuffer segment;
+    private final ByteArrayOutputStream payloadBuffer = new ByteArrayOutputStream(256);
+    private final DataOutputStream payloadOut = new DataOutputStream(payloadBuffer);
+    private final CRC32 crc = new CRC32();
+    
+    @PostConstruct
+    public synchronized void recover() {
+        long start = System.nanoTime();
+        if (enabled) {
+            try {
+                Files.createDirectories(journalDirectory());
+                if (restoreFromJournal()) {
+                    logger.info("Restored floor state from journal in {} ms (snapshot at #{}, replayed up to #{})",
+                            (System.nanoTime() - start) / 1_000_000, snapshotSequence, lastSequence);
+                    return;
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Journal in {} is unusable, rebuilding floor state from the database: {}", directory, e.toString());
+            }
+        }
+        
+        state = loadFromDatabase();
+        if (enabled) {
+            try {
+                startNewJournal();
+            } catch (IOException e) {
+                logger.warn("Could not start a journal in {}, journaling disabled: {}", directory, e.getMessage());
+                enabled = false;
+            }
+        }
+        logger.info("Loaded floor state from the database in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    // A private copy of the current state, for indexes restoring themselves at startup
+    public synchronized FloorState copyState() {
+        return state.copy();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTableStatusChanged(TableStatusChangedEvent event) {
+        state.apply(event);
+        append(TABLE_STATUS_CHANGED, out -> {
+            out.writeLong(event.tableId());
+            FloorState.writeNullableInt(out, event.tableNumber());
+            FloorState.writeNullableInt(out, event.capacity());
+            FloorState.writeEnum(out, event.previousStatus());
+            FloorState.writeEnum(out, event.status());
+        });
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        state.apply(event);
+        append(BOOKING_STATUS_CHANGED, out -> {
+            FloorState.writeNullableLong(out, event.bookingId());
+            FloorState.writeNullableLong(out, event.tableId());
+            FloorState.writeNullableInt(out, event.partySize());
+            out.writeUTF(event.customerPhone() != null ? event.customerPhone() : "");
+            FloorState.writeEnum(out, event.previousStatus());
+            FloorState.writeEnum(out, event.status());
+            FloorState.writeDateTime(out, event.bookingTime());
+            FloorState.writeDateTime(out, event.actualSeatTime());
+            FloorState.writeDateTime(out, event.checkoutTime());
+        });
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReservationChanged(ReservationChangedEvent event) {
+        state.apply(event);
+        append(RESERVATION_CHANGED, out -> {
+            FloorState.writeNullableLong(out, event.reservationId());
+            FloorState.writeNullableLong(out, event.tableId());
+            FloorState.writeDateTime(out, event.startTime());
+            FloorState.writeDateTime(out, event.endTime());
+            FloorState.writeEnum(out, event.status());
+        });
+    }
+    
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${table-service.journal.snapshot-interval-ms:300000}",
+               initialDelayString = "${table-service.journal.snapshot-interval-ms:300000}")
+    public synchronized void snapshot() {
+        if (!enabled || lastSequence == snapshotSequence) {
+            return;
+        }
+        try {
+            segment.force();
+            state.pruneReservationsEndingBefore(LocalDateTime.now().minusDays(1));
+            writeSnapshot();
+            deleteCoveredFiles();
+        } catch (IOException e) {
+            logger.warn("Could not snapshot the journal in {}: {}", directory, e.getMessage());
+        }
+    }
+    
+    // Appending
+    
+    private interface PayloadWriter {
+        void write(DataOutput out) throws IOException;
+    }
+    
+    private void append(byte type, PayloadWriter payload) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            payloadBuffer.reset();
+            payload.write(payloadOut);
+            int length = RECORD_OVERHEAD + payloadBuffer.size();
+            // Keep room for a zero length after the record, which marks the end of data
+            if (segment.remaining() < length + 4) {
+                rollSegment(lastSequence + 1);
+            }
+            long sequence = lastSequence + 1;
+            int position = segment.position();
+            segment.position(position + 4);
+            segment.putLong(sequence);
+            segment.put(type);
+            segment.put(payloadBuffer.toByteArray());
+            crc.reset();
+            crc.update(segment.slice(position + 4, length - 8));
+            segment.putInt((int) crc.getValue());
+            segment.putInt(position, length);
+            lastSequence = sequence;
+        } catch (IOException | RuntimeException e) {
+            // The database remains the source of truth; a restart without a usable journal reloads from it
+            logger.error("Journal append failed, journaling disabled until restart: {}", e.toString());
+            enabled = false;
+            discardSnapshots();
+        }
+    }
+    
+    private void rollSegment(long firstSequence) throws IOException {
+        if (segmentChannel != null) {
+            segment.force();
+            segmentChannel.close();
+        }
+        openSegment(segmentPath(firstSequence));
+    }
+    
+    private void openSegment(Path path) throws IOException {
+        segmentChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+    
+    // Recovery
+    
+    private boolean restoreFromJournal() throws IOException {
+        List<Path> snapshots = listFiles(SNAPSHOT_PREFIX);
+        if (snapshots.isEmpty()) {
+            return false;
+        }
+        Path snapshotPath = snapshots.get(snapshots.size() - 1);
+        byte[] bytes = Files.readAllBytes(snapshotPath);
+        crc.reset();
+        crc.update(bytes, 0, bytes.length - 4);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != SNAPSHOT_MAGIC) {
+            throw new IllegalStateException("not a snapshot: " + snapshotPath);
+        }
+        snapshotSequence = in.readLong();
+        state = FloorState.readFrom(in);
+        if (in.readInt() != (int) crc.getValue()) {
+            throw new IllegalStateException("checksum mismatch in " + snapshotPath);
+        }
+        lastSequence = snapshotSequence;
+        
+        List<Path> segments = listFiles(SEGMENT_PREFIX);
+        for (int i = 0; i < segments.size(); i++) {
+            boolean last = i == segments.size() - 1;
+            openSegment(segments.get(i));
+            replaySegment(segments.get(i), last);
+            if (!last) {
+                segmentChannel.close();
+            }
+        }
+        if (segments.isEmpty()) {
+            rollSegment(lastSequence + 1);
+        }
+        
+        verifyAgainstDatabase();
+        return true;
+    }
+    
+    /**
+     * Compares the restored state with the few database rows it must agree with: every table's
+     * number, capacity and status, the size of the queue, and the reservations that have not ended
+     * yet. Writes the journal never saw (another instance, manual SQL, a lost append) show up here
+     * and make recovery fall back to a database load. Customer histories are not checked.
+     */
+    private void verifyAgainstDatabase() {
+        Map<Long, FloorState.TableState> tables = new HashMap<>();
+        for (RestaurantTable table : tableRepository.findAll()) {
+            tables.put(table.getId(), new FloorState.TableState(table.getTableNumber(), table.getCapacity(), table.getStatus()));
+        }
+        if (!tables.equals(state.tables)) {
+            throw new IllegalStateException("journal tables differ from the database");
+        }
+        long waiting = bookingRepository.countWaitingBookings();
+        if (waiting != state.waitingBookings) {
+            throw new IllegalStateException("journal has " + state.waitingBookings + " waiting bookings, database has " + waiting);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, FloorState.ReservationState> upcoming = new HashMap<>();
+        // Reservations last at most 360 minutes, so older starts have ended
+        for (TableReservation reservation : reservationRepository.findByStatusAndStartTimeGreaterThanEqual(
+                TableReservation.ReservationStatus.CONFIRMED, now.minusMinutes(360))) {
+            if (reservation.getEndTime().isAfter(now)) {
+                upcoming.put(reservation.getId(), comparable(new FloorState.ReservationState(
+                        reservation.getTableId(), reservation.getStartTime(), reservation.getEndTime())));
+            }
+        }
+        Map<Long, FloorState.ReservationState> journaled = new HashMap<>();
+        state.reservations.forEach((id, reservation) -> {
+            if (reservation.endTime().isAfter(now)) {
+                journaled.put(id, comparable(reservation));
+            }
+        });
+        if (!upcoming.equals(journaled)) {
+            throw new IllegalStateException("journal reservations differ from the database");
+        }
+    }
+    
+    // The database may store times at a coarser precision than the event that was journaled
+    private static FloorState.ReservationState comparable(FloorState.ReservationState reservation) {
+        return new FloorState.ReservationState(reservation.tableId(),
+                reservation.startTime().truncatedTo(ChronoUnit.SECONDS), reservation.endTime().truncatedTo(ChronoUnit.SECONDS));
+    }
+    
+    private void replaySegment(Path path, boolean last) throws IOException {
+        segment.position(0);
+        while (segment.remaining() >= RECORD_OVERHEAD) {
+            int position = segment.position();
+            int length = segment.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            boolean intact = length >= RECORD_OVERHEAD && length <= segment.limit() - position;
+            if (intact) {
+                crc.reset();
+                crc.update(segment.slice(position + 4, length - 8));
+                intact = segment.getInt(position + length - 4) == (int) crc.getValue();
+            }
+            if (!intact) {
+                if (!last) {
+                    throw new IllegalStateException("corrupt record at " + path + ":" + position);
+                }
+                // Torn tail from a crash mid-append: drop it and continue writing here
+                logger.warn("Truncating torn journal record at {}:{}", path, position);
+                for (int i = position; i < segment.limit(); i++) {
+                    segment.put(i, (byte) 0);
+                }
+                break;
+            }
+            
+            long sequence = segment.getLong(position + 4);
+            byte type = segment.get(position + 12);
+            byte[] payload = new byte[length - RECORD_OVERHEAD];
+            segment.get(position + 13, payload);
+            segment.position(position + length);
+            if (sequence <= snapshotSequence) {
+                continue;
+            }
+            if (sequence != lastSequence + 1) {
+                throw new IllegalStateException("gap in journal: expected #" + (lastSequence + 1) + " but found #" + sequence);
+            }
+            replay(type, new DataInputStream(new ByteArrayInputStream(payload)));
+            lastSequence = sequence;
+        }
+    }
+    
+    private void replay(byte type, DataInput in) throws IOException {
+        switch (type) {
+            case TABLE_STATUS_CHANGED -> state.apply(new TableStatusChangedEvent(in.readLong(),
+                    FloorState.readNullableInt(in), FloorState.readNullableInt(in),
+                    FloorState.readEnum(in, RestaurantTable.TableStatus.class),
+                    FloorState.readEnum(in, RestaurantTable.TableStatus.class)));
+            case BOOKING_STATUS_CHANGED -> state.apply(new BookingStatusChangedEvent(FloorState.readNullableLong(in),
+                    FloorState.readNullableLong(in), FloorState.readNullableInt(in), in.readUTF(),
+                    FloorState.readEnum(in, TableBooking.BookingStatus.class),
+                    FloorState.readEnum(in, TableBooking.BookingStatus.class),
+                    FloorState.readDateTime(in), FloorState.readDateTime(in), FloorState.readDateTime(in)));
+            case RESERVATION_CHANGED -> state.apply(new ReservationChangedEvent(FloorState.readNullableLong(in),
+                    FloorState.readNullableLong(in), FloorState.readDateTime(in), FloorState.readDateTime(in),
+                    FloorState.readEnum(in, TableReservation.ReservationStatus.class)));
+            default -> throw new IllegalStateException("unknown journal record type " + type);
+        }
+    }
+    
+    private FloorState loadFromDatabase() {
+        FloorState loaded = new FloorState();
+        for (RestaurantTable table : tableRepository.findAll()) {
+            loaded.tables.put(table.getId(),
+                    new FloorState.TableState(table.getTableNumber(), table.getCapacity(), table.getStatus()));
+        }
+        loaded.waitingBookings = bookingRepository.countWaitingBookings();
+        for (TableReservation reservation : reservationRepository.findByStatusAndStartTimeGreaterThanEqual(
+                TableReservation.ReservationStatus.CONFIRMED, LocalDateTime.now().minusDays(1))) {
+            loaded.reservations.put(reservation.getId(), new FloorState.ReservationState(reservation.getTableId(),
+                    reservation.getStartTime(), reservation.getEndTime()));
+        }
+        for (CustomerVisit visit : bookingStore.findCustomerVisits(CustomerHistoryIndex.COUNTED)) {
+            CustomerHistoryIndex.record(loaded.customerHistories, visit.customerPhone(), visit.status(),
+                    visit.partySize(), visit.bookingTime());
+        }
+        return loaded;
+    }
+    
+    // Snapshots and housekeeping
+    
+    private void startNewJournal() throws IOException {
+        Files.createDirectories(journalDirectory());
+        if (segmentChannel != null) {
+            segmentChannel.close();
+            segmentChannel = null;
+        }
+        for (Path path : listFiles(SEGMENT_PREFIX)) {
+            Files.delete(path);
+        }
+        for (Path path : listFiles(SNAPSHOT_PREFIX)) {
+            Files.delete(path);
+        }
+        lastSequence = 0;
+        writeSnapshot();
+        rollSegment(1);
+    }
+    
+    private void writeSnapshot() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeLong(lastSequence);
+        state.writeTo(out);
+        crc.reset();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        
+        Path path = journalDirectory().resolve(String.format("%s%020d.bin", SNAPSHOT_PREFIX, lastSequence));
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(bytes.toByteArray()));
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        snapshotSequence = lastSequence;
+    }
+    
+    // Older snapshots, and segments whose records all precede the latest snapshot
+    private void deleteCoveredFiles() throws IOException {
+        for (Path path : listFiles(SNAPSHOT_PREFIX)) {
+            if (firstSequenceOf(path, SNAPSHOT_PREFIX) < snapshotSequence) {
+                Files.delete(path);
+            }
+        }
+        List<Path> segments = listFiles(SEGMENT_PREFIX);
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstSequenceOf(segments.get(i + 1), SEGMENT_PREFIX) <= snapshotSequence + 1) {
+                Files.delete(segments.get(i));
+            }
+        }
+    }
+    
+    // Without snapshots the next startup reloads from the database instead of trusting an incomplete journal
+    private void discardSnapshots() {
+        try {
+            for (Path path : listFiles(SNAPSHOT_PREFIX)) {
+                Files.delete(path);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not remove journal snapshots in {}: {}", directory, e.getMessage());
+        }
+    }
+    
+    private Path journalDirectory() {
+        return Paths.get(directory).toAbsolutePath();
+    }
+    
+    private Path segmentPath(long firstSequence) {
+        return journalDirectory().resolve(String.format("%s%020d.log", SEGMENT_PREFIX, firstSequence));
+    }
+    
+    private List<Path> listFiles(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(journalDirectory())) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix)
+                            && !path.getFileName().toString().endsWith(".tmp"))
+                    .sorted()
+                    .toList();
+        }
+    }
+    
+    private static long firstSequenceOf(Path path, String prefix) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.indexOf('.')));
+    }
+}
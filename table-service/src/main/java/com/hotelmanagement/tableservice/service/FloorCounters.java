@@ -0,0 +1,97 @@
+package com.hotelmanagement.tableservice.service;
+
+import com.hotelmanagement.tableservice.entity.RestaurantTable;
+import com.hotelmanagement.tableservice.entity.TableBooking;
+import com.hotelmanagement.tableservice.event.BookingStatusChangedEvent;
+import com.hotelmanagement.tableservice.event.TableStatusChangedEvent;
+import com.hotelmanagement.tableservice.repository.RestaurantTableRepository;
+import com.hotelmanagement.tableservice.repository.TableBookingRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Queue and occupancy counters maintained from booking and table transitions, so the
+ * waiting-time endpoints never run COUNT queries. A periodic reconciliation pass resets
+ * them from the database to repair any drift (e.g. rows edited outside this service).
+ */
+@Component
+public class FloorCounters {
+    
+    @Autowired
+    private RestaurantTableRepository tableRepository;
+    
+    @Autowired
+    private TableBookingRepository bookingRepository;
+    
+    @Autowired
+    private EventJournal eventJournal;
+    
+    private final AtomicLong waitingBookings = new AtomicLong();
+    private final Map<RestaurantTable.TableStatus, AtomicLong> tablesByStatus = new EnumMap<>(RestaurantTable.TableStatus.class);
+    
+    public FloorCounters() {
+        for (RestaurantTable.TableStatus status : RestaurantTable.TableStatus.values()) {
+            tablesByStatus.put(status, new AtomicLong());
+        }
+    }
+    
+    // Startup values come from the journaled floor state; the periodic pass below re-counts in the DB
+    @PostConstruct
+    public void restore() {
+        FloorState state = eventJournal.copyState();
+        waitingBookings.set(state.waitingBookings);
+        for (FloorState.TableState table : state.tables.values()) {
+            tablesByStatus.get(table.status()).incrementAndGet();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${table-service.counters.reconcile-interval-ms:60000}",
+               initialDelayString = "${table-service.counters.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        waitingBookings.set(bookingRepository.countWaitingBookings());
+        for (RestaurantTable.TableStatus status : RestaurantTable.TableStatus.values()) {
+            tablesByStatus.get(status).set(tableRepository.countByStatus(status));
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTableStatusChanged(TableStatusChangedEvent event) {
+        if (event.previousStatus() == event.status()) {
+            return;
+        }
+        if (event.previousStatus() != null) {
+            tablesByStatus.get(event.previousStatus()).decrementAndGet();
+        }
+        if (event.status() != null) {
+            tablesByStatus.get(event.status()).incrementAndGet();
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        if (event.previousStatus() == event.status()) {
+            return;
+        }
+        if (event.previousStatus() == TableBooking.BookingStatus.WAITING) {
+            waitingBookings.decrementAndGet();
+        }
+        if (event.status() == TableBooking.BookingStatus.WAITING) {
+            waitingBookings.incrementAndGet();
+        }
+    }
+    
+    public long getWaitingCount() {
+        return Math.max(0, waitingBookings.get());
+    }
+    
+    public long getTableCount(RestaurantTable.TableStatus status) {
+        return Math.max(0, tablesByStatus.get(status).get());
+    }
+}
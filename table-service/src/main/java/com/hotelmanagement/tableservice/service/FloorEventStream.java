@@ -0,0 +1,243 @@
+package com.hotelmanagement.tableservice.service;
+
+import com.hotelmanagement.tableservice.entity.RestaurantTable;
+import com.hotelmanagement.tableservice.event.BookingStatusChangedEvent;
+import com.hotelmanagement.tableservice.event.TableStatusChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server-Sent Events fan-out of table and booking changes.
+ * Deltas are coalesced per entity in each subscriber's pending map and flushed on a fixed
+ * interval, so a burst of updates to one table reaches clients as a single event. A client
+ * that cannot keep up has at most one send in flight; if its backlog still outgrows the limit
+ * the backlog is dropped and the client is told to resync with a full fetch instead.
+ * Sends run on a bounded pool; when it is saturated, or a send has been stuck past the send
+ * timeout, the subscriber is completed and its client reconnects. Idle streams get a comment
+ * line every heartbeat interval so proxies keep them open and dead clients are noticed.
+ */
+@Component
+public class FloorEventStream {
+    
+    @Autowired
+    private FloorCounters floorCounters;
+    
+    @Value("${table-service.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+    
+    @Value("${table-service.stream.max-pending-events:500}")
+    private int maxPendingEvents;
+    
+    @Value("${table-service.stream.sender-threads:8}")
+    private int senderThreads;
+    
+    @Value("${table-service.stream.sender-queue-capacity:256}")
+    private int senderQueueCapacity;
+    
+    @Value("${table-service.stream.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+    
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor sender;
+    
+    @PostConstruct
+    public void start() {
+        sender = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(senderQueueCapacity), (task, executor) -> {
+                    Subscriber subscriber = ((Drain) task).subscriber;
+                    drop(subscriber);
+                    subscriber.sending.set(false);
+                });
+        sender.allowCoreThreadTimeOut(true);
+    }
+    
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTableStatusChanged(TableStatusChangedEvent event) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("id", event.tableId());
+        delta.put("tableNumber", event.tableNumber());
+        delta.put("capacity", event.capacity());
+        delta.put("status", event.status());
+        enqueue("table:" + event.tableId(), "table", delta);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("id", event.bookingId());
+        delta.put("tableId", event.tableId());
+        delta.put("partySize", event.partySize());
+        delta.put("status", event.status());
+        delta.put("bookingTime", event.bookingTime());
+        delta.put("actualSeatTime", event.actualSeatTime());
+        delta.put("checkoutTime", event.checkoutTime());
+        enqueue("booking:" + event.bookingId(), "booking", delta);
+    }
+    
+    @Scheduled(fixedDelayString = "${table-service.stream.flush-interval-ms:250}")
+    public void flush() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.hasWork() && subscriber.sending.compareAndSet(false, true)) {
+                sender.execute(new Drain(subscriber));
+            }
+        }
+    }
+    
+    // Idle subscribers get a heartbeat on the next flush; one whose send has hung is dropped
+    @Scheduled(fixedDelayString = "${table-service.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStartedAt;
+            if (subscriber.sending.get() && started > 0 && now - started > sendTimeoutMs) {
+                drop(subscriber);
+                continue;
+            }
+            synchronized (subscriber) {
+                subscriber.heartbeatDue = true;
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        sender.shutdownNow();
+    }
+    
+    private void enqueue(String key, String eventName, Object data) {
+        for (Subscriber subscriber : subscribers) {
+            synchronized (subscriber) {
+                if (subscriber.overflowed) {
+                    continue;
+                }
+                if (subscriber.pending.size() >= maxPendingEvents && !subscriber.pending.containsKey(key)) {
+                    subscriber.pending.clear();
+                    subscriber.overflowed = true;
+                    continue;
+                }
+                subscriber.pending.remove(key);
+                subscriber.pending.put(key, new Delta(eventName, data));
+                subscriber.summaryDue = true;
+            }
+        }
+    }
+    
+    private void drain(Subscriber subscriber) {
+        subscriber.sendStartedAt = System.currentTimeMillis();
+        try {
+            List<Delta> batch;
+            boolean overflowed;
+            boolean summaryDue;
+            boolean heartbeatDue;
+            synchronized (subscriber) {
+                batch = new ArrayList<>(subscriber.pending.values());
+                overflowed = subscriber.overflowed;
+                summaryDue = subscriber.summaryDue;
+                heartbeatDue = subscriber.heartbeatDue;
+                subscriber.pending.clear();
+                subscriber.overflowed = false;
+                subscriber.summaryDue = false;
+                subscriber.heartbeatDue = false;
+            }
+            
+            if (overflowed) {
+                subscriber.emitter.send(SseEmitter.event().name("resync").data(Map.of()));
+            }
+            for (Delta delta : batch) {
+                subscriber.emitter.send(SseEmitter.event().name(delta.eventName()).data(delta.data()));
+            }
+            if (summaryDue || overflowed) {
+                subscriber.emitter.send(SseEmitter.event().name("waiting-time").data(summary()));
+            } else if (heartbeatDue && batch.isEmpty()) {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscriber.sendStartedAt = 0;
+            subscriber.sending.set(false);
+        }
+    }
+    
+    // The client's EventSource reconnects and starts over from a full fetch
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.emitter.complete();
+        }
+    }
+    
+    private Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("currentWaitingCount", floorCounters.getWaitingCount());
+        summary.put("availableTableCount", floorCounters.getTableCount(RestaurantTable.TableStatus.AVAILABLE));
+        summary.put("occupiedTableCount", floorCounters.getTableCount(RestaurantTable.TableStatus.OCCUPIED));
+        return summary;
+    }
+    
+    private record Delta(String eventName, Object data) {
+    }
+    
+    private final class Drain implements Runnable {
+        private final Subscriber subscriber;
+        
+        private Drain(Subscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+        
+        @Override
+        public void run() {
+            drain(subscriber);
+        }
+    }
+    
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Map<String, Delta> pending = new LinkedHashMap<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private boolean overflowed;
+        private boolean heartbeatDue;
+        private volatile long sendStartedAt;
+        // New subscribers get the current counts straight away
+        private boolean summaryDue = true;
+        
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+        
+        private synchronized boolean hasWork() {
+            return overflowed || summaryDue || heartbeatDue || !pending.isEmpty();
+        }
+    }
+}
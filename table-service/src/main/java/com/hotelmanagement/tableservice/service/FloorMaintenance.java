@@ -0,0 +1,138 @@
+package com.hotelmanagement.tableservice.service;
+
+import com.hotelmanagement.tableservice.entity.RestaurantTable;
+import com.hotelmanagement.tableservice.entity.TableBooking;
+import com.hotelmanagement.tableservice.event.BookingStatusChangedEvent;
+import com.hotelmanagement.tableservice.event.TableStatusChangedEvent;
+import com.hotelmanagement.tableservice.repository.BookingView;
+import com.hotelmanagement.tableservice.repository.RestaurantTableRepository;
+import com.hotelmanagement.tableservice.repository.TableBookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Set-based housekeeping for the floor: expiring parties that never got seated, and the
+ * end-of-night reset. Each chunk is one id lookup plus one bulk UPDATE; the changed rows are
+ * then read back by their update timestamp and published as ordinary transition events, so the
+ * in-memory indexes, counters, journal and live stream stay in step without a reload.
+ */
+@Component
+public class FloorMaintenance {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FloorMaintenance.class);
+    
+    public record MaintenanceRun(String job, int rowsTouched, long durationMillis, LocalDateTime finishedAt) {
+    }
+    
+    @Autowired
+    private TableBookingRepository bookingRepository;
+    
+    @Autowired
+    private RestaurantTableRepository tableRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${table-service.maintenance.no-show-after-minutes:120}")
+    private int noShowAfterMinutes;
+    
+    @Value("${table-service.maintenance.batch-size:500}")
+    private int batchSize;
+    
+    private final Map<String, MaintenanceRun> lastRuns = new ConcurrentHashMap<>();
+    
+    // WAITING bookings whose booking time is more than no-show-after-minutes ago become NO_SHOW
+    @Scheduled(fixedDelayString = "${table-service.maintenance.no-show-interval-ms:300000}",
+               initialDelayString = "${table-service.maintenance.no-show-interval-ms:300000}")
+    public MaintenanceRun expireNoShows() {
+        long start = System.currentTimeMillis();
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(noShowAfterMinutes);
+        int expired = transitionBookings(TableBooking.BookingStatus.WAITING, TableBooking.BookingStatus.NO_SHOW, cutoff);
+        return report("expire-no-shows", expired, start);
+    }
+    
+    /**
+     * Closes the night: bookings still SEATED are completed (checkout time left empty, so the
+     * wait-time models do not learn from them) and OCCUPIED or RESERVED tables become AVAILABLE.
+     * OUT_OF_ORDER tables are left alone.
+     */
+    @Scheduled(cron = "${table-service.maintenance.floor-reset-cron:0 0 4 * * *}")
+    public MaintenanceRun resetFloor() {
+        long start = System.currentTimeMillis();
+        int touched = transitionBookings(TableBooking.BookingStatus.SEATED, TableBooking.BookingStatus.COMPLETED,
+                LocalDateTime.now());
+        touched += transitionTables(RestaurantTable.TableStatus.OCCUPIED, RestaurantTable.TableStatus.AVAILABLE);
+        touched += transitionTables(RestaurantTable.TableStatus.RESERVED, RestaurantTable.TableStatus.AVAILABLE);
+        return report("floor-reset", touched, start);
+    }
+    
+    public List<MaintenanceRun> getLastRuns() {
+        return new ArrayList<>(lastRuns.values());
+    }
+    
+    private int transitionBookings(TableBooking.BookingStatus from, TableBooking.BookingStatus to, LocalDateTime bookedBefore) {
+        int total = 0;
+        int found;
+        do {
+            int[] counts = transactionTemplate.execute(tx -> {
+                List<Long> ids = bookingRepository.findIdsByStatusBookedBefore(from, bookedBefore, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    return new int[] {0, 0};
+                }
+                // Truncated to the column's precision so the read-back below matches exactly
+                LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+                int updated = bookingRepository.updateStatusByIdIn(ids, from, to, updatedAt);
+                for (BookingView booking : bookingRepository.findViewsByIdInAndUpdatedAt(ids, updatedAt)) {
+                    eventPublisher.publishEvent(new BookingStatusChangedEvent(booking.id(), booking.tableId(),
+                            booking.partySize(), booking.customerPhone(), from, booking.status(), booking.bookingTime(),
+                            booking.actualSeatTime(), booking.checkoutTime()));
+                }
+                return new int[] {ids.size(), updated};
+            });
+            found = counts[0];
+            total += counts[1];
+        } while (found == batchSize);
+        return total;
+    }
+    
+    private int transitionTables(RestaurantTable.TableStatus from, RestaurantTable.TableStatus to) {
+        return transactionTemplate.execute(tx -> {
+            List<Long> ids = tableRepository.findIdsByStatus(from);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            int updated = tableRepository.updateStatusByIdIn(ids, from, to, updatedAt);
+            for (RestaurantTable table : tableRepository.findByIdInAndUpdatedAt(ids, updatedAt)) {
+                eventPublisher.publishEvent(TableStatusChangedEvent.of(table, from));
+            }
+            return updated;
+        });
+    }
+    
+    private MaintenanceRun report(String job, int rowsTouched, long start) {
+        MaintenanceRun run = new MaintenanceRun(job, rowsTouched, System.currentTimeMillis() - start, LocalDateTime.now());
+        lastRuns.put(job, run);
+        if (rowsTouched > 0) {
+            logger.info("{}: {} rows updated in {} ms", job, rowsTouched, run.durationMillis());
+        }
+        return run;
+    }
+}
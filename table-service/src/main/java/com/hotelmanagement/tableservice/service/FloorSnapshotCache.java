@@ -0,0 +1,70 @@
+package com.hotelmanagement.tableservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelmanagement.tableservice.entity.RestaurantTable;
+import com.hotelmanagement.tableservice.event.TableStatusChangedEvent;
+import com.hotelmanagement.tableservice.repository.RestaurantTableRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable, pre-serialized view of the floor for the table listing endpoints.
+ * Every committed table change bumps the floor version; the snapshot is rebuilt (one query,
+ * one serialization per listing) the first time it is read at a newer version, so polls between
+ * changes cost a volatile read and bursts of changes collapse into a single rebuild.
+ */
+@Component
+public class FloorSnapshotCache {
+    
+    public record FloorSnapshot(long version, String etag, byte[] allTablesJson, byte[] availableTablesJson) {
+    }
+    
+    @Autowired
+    private RestaurantTableRepository tableRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Distinguishes ETags issued before a restart, when the version counter starts over
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong(1);
+    private volatile FloorSnapshot current;
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTableStatusChanged(TableStatusChangedEvent event) {
+        version.incrementAndGet();
+    }
+    
+    public FloorSnapshot get() {
+        FloorSnapshot snapshot = current;
+        if (snapshot != null && snapshot.version() == version.get()) {
+            return snapshot;
+        }
+        return rebuild();
+    }
+    
+    private synchronized FloorSnapshot rebuild() {
+        // Read the version before the query: a change committed meanwhile leaves this snapshot stale, not wrong
+        long buildVersion = version.get();
+        if (current != null && current.version() == buildVersion) {
+            return current;
+        }
+        List<RestaurantTable> tables = List.copyOf(tableRepository.findAll());
+        List<RestaurantTable> available = tables.stream()
+                .filter(table -> table.getStatus() == RestaurantTable.TableStatus.AVAILABLE)
+                .toList();
+        try {
+            current = new FloorSnapshot(buildVersion, "\"" + epoch + "-" + buildVersion + "\"",
+                    objectMapper.writeValueAsBytes(tables), objectMapper.writeValueAsBytes(available));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        return current;
+    }
+}
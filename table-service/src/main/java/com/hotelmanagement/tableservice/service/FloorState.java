@@ -0,0 +1,173 @@
+package com.hotelmanagement.tableservice.service;
+
+import com.hotelmanagement.tableservice.entity.RestaurantTable;
+import com.hotelmanagement.tableservice.entity.TableBooking;
+import com.hotelmanagement.tableservice.entity.TableReservation;
+import com.hotelmanagement.tableservice.event.BookingStatusChangedEvent;
+import com.hotelmanagement.tableservice.event.ReservationChangedEvent;
+import com.hotelmanagement.tableservice.event.TableStatusChangedEvent;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Everything the in-memory indexes and counters are built from at startup: tables, the size of
+ * the queue, confirmed reservations and customer histories. EventJournal keeps one instance
+ * current by applying every journaled transition, and snapshots it in a compact binary form.
+ * Not thread-safe; EventJournal serializes access.
+ */
+final class FloorState {
+    
+    record TableState(Integer tableNumber, Integer capacity, RestaurantTable.TableStatus status) {
+    }
+    
+    record ReservationState(Long tableId, LocalDateTime startTime, LocalDateTime endTime) {
+    }
+    
+    final Map<Long, TableState> tables = new HashMap<>();
+    final Map<Long, ReservationState> reservations = new HashMap<>();
+    final Map<String, CustomerHistoryIndex.CustomerHistory> customerHistories = new HashMap<>();
+    long waitingBookings;
+    
+    void apply(TableStatusChangedEvent event) {
+        tables.put(event.tableId(), new TableState(event.tableNumber(), event.capacity(), event.status()));
+    }
+    
+    void apply(BookingStatusChangedEvent event) {
+        if (event.previousStatus() == event.status()) {
+            return;
+        }
+        if (event.previousStatus() == TableBooking.BookingStatus.WAITING) {
+            waitingBookings--;
+        }
+        if (event.status() == TableBooking.BookingStatus.WAITING) {
+            waitingBookings++;
+        }
+        CustomerHistoryIndex.record(customerHistories, event.customerPhone(), event.status(), event.partySize(),
+                event.bookingTime());
+    }
+    
+    void apply(ReservationChangedEvent event) {
+        if (event.status() == TableReservation.ReservationStatus.CONFIRMED) {
+            reservations.put(event.reservationId(), new ReservationState(event.tableId(), event.startTime(), event.endTime()));
+        } else {
+            reservations.remove(event.reservationId());
+        }
+    }
+    
+    FloorState copy() {
+        FloorState copy = new FloorState();
+        copy.tables.putAll(tables);
+        copy.reservations.putAll(reservations);
+        copy.customerHistories.putAll(customerHistories);
+        copy.waitingBookings = waitingBookings;
+        return copy;
+    }
+    
+    // Reservations that ended before the cutoff can no longer conflict with anything
+    void pruneReservationsEndingBefore(LocalDateTime cutoff) {
+        reservations.values().removeIf(reservation -> reservation.endTime().isBefore(cutoff));
+    }
+    
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(waitingBookings);
+        out.writeInt(tables.size());
+        for (Map.Entry<Long, TableState> entry : tables.entrySet()) {
+            out.writeLong(entry.getKey());
+            writeNullableInt(out, entry.getValue().tableNumber());
+            writeNullableInt(out, entry.getValue().capacity());
+            writeEnum(out, entry.getValue().status());
+        }
+        out.writeInt(reservations.size());
+        for (Map.Entry<Long, ReservationState> entry : reservations.entrySet()) {
+            out.writeLong(entry.getKey());
+            writeNullableLong(out, entry.getValue().tableId());
+            writeDateTime(out, entry.getValue().startTime());
+            writeDateTime(out, entry.getValue().endTime());
+        }
+        out.writeInt(customerHistories.size());
+        for (CustomerHistoryIndex.CustomerHistory history : customerHistories.values()) {
+            out.writeUTF(history.customerPhone());
+            out.writeInt(history.visits());
+            writeNullableInt(out, history.lastPartySize());
+            writeDateTime(out, history.lastVisit());
+            out.writeInt(history.noShows());
+        }
+    }
+    
+    static FloorState readFrom(DataInput in) throws IOException {
+        FloorState state = new FloorState();
+        state.waitingBookings = in.readLong();
+        int tableCount = in.readInt();
+        for (int i = 0; i < tableCount; i++) {
+            long tableId = in.readLong();
+            state.tables.put(tableId, new TableState(readNullableInt(in), readNullableInt(in),
+                    readEnum(in, RestaurantTable.TableStatus.class)));
+        }
+        int reservationCount = in.readInt();
+        for (int i = 0; i < reservationCount; i++) {
+            long reservationId = in.readLong();
+            state.reservations.put(reservationId, new ReservationState(readNullableLong(in), readDateTime(in), readDateTime(in)));
+        }
+        int historyCount = in.readInt();
+        for (int i = 0; i < historyCount; i++) {
+            CustomerHistoryIndex.CustomerHistory history = new CustomerHistoryIndex.CustomerHistory(in.readUTF(),
+                    in.readInt(), readNullableInt(in), readDateTime(in), in.readInt());
+            state.customerHistories.put(history.customerPhone(), history);
+        }
+        return state;
+    }
+    
+    // Field codecs shared with the journal record format
+    
+    static void writeNullableLong(DataOutput out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+    
+    static Long readNullableLong(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+    
+    static void writeNullableInt(DataOutput out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+    
+    static Integer readNullableInt(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+    
+    static void writeDateTime(DataOutput out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+    
+    static LocalDateTime readDateTime(DataInput in) throws IOException {
+        return in.readBoolean() ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC) : null;
+    }
+    
+    // By name, so reordering or inserting constants cannot silently remap journaled values
+    static void writeEnum(DataOutput out, Enum<?> value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value.name());
+        }
+    }
+    
+    static <E extends Enum<E>> E readEnum(DataInput in, Class<E> type) throws IOException {
+        return in.readBoolean() ? Enum.valueOf(type, in.readUTF()) : null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.hotelmanagement.tableservice.service;
+
+/**
+ * Thrown when an Idempotency-Key cannot be honored: either the first request carrying it is
+ * still being processed, or the key was already used for a different request.
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final boolean keyReused;
+    
+    public IdempotencyKeyConflictException(String message, boolean keyReused) {
+        super(message);
+        this.keyReused = keyReused;
+    }
+    
+    public boolean isKeyReused() {
+        return keyReused;
+    }
+}
@@ -0,0 +1,172 @@
+package com.hotelmanagement.tableservice.service;
+
+import com.hotelmanagement.tableservice.entity.IdempotencyRecord;
+import com.hotelmanagement.tableservice.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Responses recorded under client-supplied Idempotency-Keys, so a retried booking, seat or
+ * checkout replays the original answer instead of writing again. Entries live in a bounded
+ * in-memory map and expire after a fixed time; with persistence enabled the key is also claimed
+ * in idempotency_keys, which makes a replay that lands on another instance safe as well.
+ *
+ * A key is claimed before the write runs and completed with whatever response it produced; only
+ * a request that throws, rolling its write back, or answers with a server error is released so
+ * the client can retry it.
+ */
+@Component
+public class IdempotencyStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+    
+    public record StoredResponse(String fingerprint, int statusCode, byte[] body) {
+    }
+    
+    // response is null while the first request is in flight
+    private record Entry(String fingerprint, StoredResponse response, long expiresAtMillis) {
+    }
+    
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${table-service.idempotency.ttl-minutes:1440}")
+    private long ttlMinutes;
+    
+    @Value("${table-service.idempotency.persist:false}")
+    private boolean persist;
+    
+    private final Map<String, Entry> entries;
+    
+    public IdempotencyStore(@Value("${table-service.idempotency.max-entries:10000}") int maxEntries) {
+        // Insertion order with a fixed TTL, so the eldest entry is also the one closest to expiry
+        this.entries = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+    
+    /**
+     * Claims the key for a new request, returning null, or returns the response recorded for an
+     * earlier request with the same key and fingerprint.
+     */
+    public StoredResponse claim(String key, String fingerprint) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAtMillis() > now) {
+                return resolve(entry, fingerprint);
+            }
+            entries.put(key, new Entry(fingerprint, null, now + ttlMinutes * 60_000));
+        }
+        if (!persist) {
+            return null;
+        }
+        try {
+            StoredResponse stored = claimInDatabase(key, fingerprint);
+            if (stored != null) {
+                synchronized (entries) {
+                    entries.put(key, new Entry(fingerprint, stored, now + ttlMinutes * 60_000));
+                }
+            }
+            return stored;
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                entries.remove(key);
+            }
+            throw e;
+        }
+    }
+    
+    public void complete(String key, StoredResponse response) {
+        synchronized (entries) {
+            entries.put(key, new Entry(response.fingerprint(), response,
+                    System.currentTimeMillis() + ttlMinutes * 60_000));
+        }
+        if (persist) {
+            transactionTemplate.executeWithoutResult(tx ->
+                    recordRepository.complete(key, response.statusCode(), response.body()));
+        }
+    }
+    
+    public void release(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.response() == null) {
+                entries.remove(key);
+            }
+        }
+        if (persist) {
+            transactionTemplate.executeWithoutResult(tx -> recordRepository.deleteClaim(key));
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${table-service.idempotency.purge-interval-ms:600000}",
+               initialDelayString = "${table-service.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+        }
+        if (persist) {
+            Integer purged = transactionTemplate.execute(tx ->
+                    recordRepository.deleteAllExpired(LocalDateTime.now()));
+            if (purged != null && purged > 0) {
+                logger.info("Purged {} expired idempotency keys", purged);
+            }
+        }
+    }
+    
+    private StoredResponse claimInDatabase(String key, String fingerprint) {
+        // Two attempts: the first may collide with an expired row that is then cleared
+        for (int attempt = 0; attempt < 2; attempt++) {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                transactionTemplate.executeWithoutResult(tx ->
+                        recordRepository.insertClaim(key, fingerprint, now, now.plusMinutes(ttlMinutes)));
+                return null;
+            } catch (DataIntegrityViolationException e) {
+                Optional<IdempotencyRecord> existing = recordRepository.findById(key);
+                if (existing.isEmpty()) {
+                    continue;
+                }
+                IdempotencyRecord record = existing.get();
+                if (record.getExpiresAt().isBefore(now)) {
+                    transactionTemplate.executeWithoutResult(tx -> recordRepository.deleteExpired(key, now));
+                    continue;
+                }
+                StoredResponse stored = record.getStatusCode() != null
+                        ? new StoredResponse(record.getFingerprint(), record.getStatusCode(), record.getResponseBody())
+                        : null;
+                return resolve(new Entry(record.getFingerprint(), stored, 0), fingerprint);
+            }
+        }
+        throw new IdempotencyKeyConflictException("A request with this Idempotency-Key is still being processed", false);
+    }
+    
+    private static StoredResponse resolve(Entry entry, String fingerprint) {
+        if (!entry.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyConflictException("This Idempotency-Key was already used for a different request", true);
+        }
+        if (entry.response() == null) {
+            throw new IdempotencyKeyConflictException("A request with this Idempotency-Key is still being processed", false);
+        }
+        return entry.response();
+    }
+}
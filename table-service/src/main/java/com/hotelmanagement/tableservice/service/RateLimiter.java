@@ -0,0 +1,171 @@
+package com.hotelmanagement.tableservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint token buckets, one per client key. Rules come from table-service.rate-limit.rules,
+ * each "METHOD /path/pattern=key:capacity:refillPerMinute" where key is ip, customerPhone or
+ * global (one bucket shared by every caller, which sheds load once the endpoint as a whole is
+ * saturated). A request must pass every rule that matches it, and is only charged if it does.
+ *
+ * Idle buckets refill to capacity and are swept, so the maps only hold recently active clients.
+ */
+@Component
+public class RateLimiter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+    
+    public enum KeyType {
+        IP, CUSTOMER_PHONE, GLOBAL
+    }
+    
+    public record Rule(String method, String pathPattern, KeyType keyType, int capacity, double refillPerMinute) {
+        
+        @Override
+        public String toString() {
+            return method + " " + pathPattern + " by " + keyType;
+        }
+    }
+    
+    public record RuleStats(String rule, int capacity, double refillPerMinute,
+                            long allowed, long rejected, int trackedClients) {
+    }
+    
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+    
+    private final boolean enabled;
+    private final int maxClientsPerRule;
+    private final Map<Rule, Limit> limits = new LinkedHashMap<>();
+    
+    public RateLimiter(@Value("${table-service.rate-limit.enabled:true}") boolean enabled,
+                       @Value("${table-service.rate-limit.max-clients-per-rule:100000}") int maxClientsPerRule,
+                       @Value("${table-service.rate-limit.rules:}") String[] rules) {
+        this.enabled = enabled;
+        this.maxClientsPerRule = maxClientsPerRule;
+        for (String rule : rules) {
+            if (!rule.isBlank()) {
+                Rule parsed = parse(rule.trim());
+                limits.put(parsed, new Limit(parsed));
+            }
+        }
+        logger.info("Rate limiting {} with {} rules", enabled ? "enabled" : "disabled", limits.size());
+    }
+    
+    public List<Rule> matchingRules(String method, String path) {
+        List<Rule> matching = new ArrayList<>();
+        if (!enabled) {
+            return matching;
+        }
+        for (Limit limit : limits.values()) {
+            if (limit.rule.method().equalsIgnoreCase(method) && PATH_MATCHER.match(limit.rule.pathPattern(), path)) {
+                matching.add(limit.rule);
+            }
+        }
+        return matching;
+    }
+    
+    /**
+     * Takes a token under every rule, each for the client key at the same position, returning 0,
+     * or returns how many nanoseconds the client should wait before retrying. A request is charged
+     * all or nothing: when a later rule rejects it, the tokens already taken are refunded.
+     */
+    public long tryAcquire(List<Rule> rules, List<String> clientKeys) {
+        long now = System.nanoTime();
+        List<TokenBucket> taken = new ArrayList<>(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            Limit limit = limits.get(rules.get(i));
+            TokenBucket bucket = bucketFor(limit, clientKeys.get(i), now);
+            long waitNanos = bucket.tryConsume(now);
+            if (waitNanos > 0) {
+                taken.forEach(TokenBucket::refund);
+                limit.rejected.increment();
+                return waitNanos;
+            }
+            taken.add(bucket);
+        }
+        for (Rule rule : rules) {
+            limits.get(rule).allowed.increment();
+        }
+        return 0;
+    }
+    
+    private TokenBucket bucketFor(Limit limit, String clientKey, long now) {
+        Rule rule = limit.rule;
+        String key = rule.keyType() == KeyType.GLOBAL ? "*" : clientKey;
+        TokenBucket bucket = limit.buckets.get(key);
+        if (bucket == null) {
+            if (limit.buckets.size() >= maxClientsPerRule) {
+                // Table full of distinct clients: treat unseen ones as a single shared bucket
+                key = "overflow";
+            }
+            bucket = limit.buckets.computeIfAbsent(key,
+                    k -> new TokenBucket(rule.capacity(), rule.refillPerMinute(), now));
+        }
+        return bucket;
+    }
+    
+    public List<RuleStats> getStats() {
+        List<RuleStats> stats = new ArrayList<>();
+        for (Limit limit : limits.values()) {
+            stats.add(new RuleStats(limit.rule.toString(), limit.rule.capacity(), limit.rule.refillPerMinute(),
+                    limit.allowed.sum(), limit.rejected.sum(), limit.buckets.size()));
+        }
+        return stats;
+    }
+    
+    @Scheduled(fixedDelayString = "${table-service.rate-limit.sweep-interval-ms:60000}")
+    public void sweepIdleBuckets() {
+        long now = System.nanoTime();
+        for (Limit limit : limits.values()) {
+            limit.buckets.values().removeIf(bucket -> bucket.isFull(now));
+        }
+    }
+    
+    private static Rule parse(String rule) {
+        // e.g. "POST /api/tables/book=customerPhone:5:2"
+        int eq = rule.lastIndexOf('=');
+        int space = rule.indexOf(' ');
+        String[] limit = eq > 0 ? rule.substring(eq + 1).split(":") : new String[0];
+        if (space < 0 || eq < space || limit.length != 3) {
+            throw new IllegalArgumentException("Invalid rate-limit rule '" + rule
+                    + "', expected METHOD /path=key:capacity:refillPerMinute");
+        }
+        KeyType keyType = switch (limit[0].trim()) {
+            case "ip" -> KeyType.IP;
+            case "customerPhone" -> KeyType.CUSTOMER_PHONE;
+            case "global" -> KeyType.GLOBAL;
+            default -> throw new IllegalArgumentException("Unknown rate-limit key '" + limit[0] + "' in rule '" + rule + "'");
+        };
+        int capacity = Integer.parseInt(limit[1].trim());
+        double refillPerMinute = Double.parseDouble(limit[2].trim());
+        if (capacity < 1 || !(refillPerMinute > 0) || Double.isInfinite(refillPerMinute)) {
+            throw new IllegalArgumentException("Rate-limit rule '" + rule
+                    + "' needs a capacity of at least 1 and a positive refillPerMinute");
+        }
+        return new Rule(rule.substring(0, space).trim(), rule.substring(space + 1, eq).trim(), keyType,
+                capacity, refillPerMinute);
+    }
+    
+    private static final class Limit {
+        private final Rule rule;
+        private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final LongAdder allowed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        
+        private Limit(Rule rule) {
+            this.rule = rule;
+        }
+    }
+}
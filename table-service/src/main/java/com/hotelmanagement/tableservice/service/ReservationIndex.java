@@ -0,0 +1,123 @@
+package com.hotelmanagement.tableservice.service;
+
+import com.hotelmanagement.tableservice.entity.RestaurantTable;
+import com.hotelmanagement.tableservice.entity.TableReservation;
+import com.hotelmanagement.tableservice.event.ReservationChangedEvent;
+import com.hotelmanagement.tableservice.event.TableStatusChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory conflict index of confirmed reservations, one interval map per table.
+ * Intervals on a table never overlap, so keying them by start time is enough: the only
+ * interval that can collide with [start, end) is the one with the latest start before end.
+ * That makes each overlap check a single O(log n) lookup and a slot search one check per
+ * candidate table, smallest fitting capacity first.
+ */
+@Component
+public class ReservationIndex {
+    
+    public record AvailableTable(Long tableId, Integer tableNumber, Integer capacity) {
+    }
+    
+    private record Interval(Long reservationId, LocalDateTime start, LocalDateTime end) {
+    }
+    
+    @Autowired
+    private EventJournal eventJournal;
+    
+    private final Map<Long, TreeMap<LocalDateTime, Interval>> intervalsByTable = new HashMap<>();
+    private final Map<Long, AvailableTable> tables = new HashMap<>();
+    private final TreeMap<Integer, Set<Long>> tableIdsByCapacity = new TreeMap<>();
+    
+    @PostConstruct
+    public void load() {
+        FloorState state = eventJournal.copyState();
+        synchronized (this) {
+            for (Map.Entry<Long, FloorState.TableState> table : state.tables.entrySet()) {
+                updateTable(table.getKey(), table.getValue().tableNumber(), table.getValue().capacity(),
+                        table.getValue().status());
+            }
+            for (Map.Entry<Long, FloorState.ReservationState> reservation : state.reservations.entrySet()) {
+                add(reservation.getKey(), reservation.getValue().tableId(), reservation.getValue().startTime(),
+                        reservation.getValue().endTime());
+            }
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTableStatusChanged(TableStatusChangedEvent event) {
+        updateTable(event.tableId(), event.tableNumber(), event.capacity(), event.status());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReservationChanged(ReservationChangedEvent event) {
+        if (event.status() == TableReservation.ReservationStatus.CONFIRMED) {
+            add(event.reservationId(), event.tableId(), event.startTime(), event.endTime());
+        } else {
+            remove(event.tableId(), event.startTime(), event.reservationId());
+        }
+    }
+    
+    public synchronized boolean isFree(Long tableId, LocalDateTime start, LocalDateTime end) {
+        TreeMap<LocalDateTime, Interval> intervals = intervalsByTable.get(tableId);
+        if (intervals == null) {
+            return true;
+        }
+        Map.Entry<LocalDateTime, Interval> latestBeforeEnd = intervals.lowerEntry(end);
+        return latestBeforeEnd == null || !latestBeforeEnd.getValue().end().isAfter(start);
+    }
+    
+    // Tables in service that seat the party and are free for the whole slot, best fit first
+    public synchronized List<AvailableTable> findAvailable(int partySize, LocalDateTime start, LocalDateTime end) {
+        List<AvailableTable> available = new ArrayList<>();
+        for (Set<Long> tableIds : tableIdsByCapacity.tailMap(partySize, true).values()) {
+            for (Long tableId : tableIds) {
+                if (isFree(tableId, start, end)) {
+                    available.add(tables.get(tableId));
+                }
+            }
+        }
+        return available;
+    }
+    
+    public synchronized AvailableTable getTable(Long tableId) {
+        return tables.get(tableId);
+    }
+    
+    private synchronized void updateTable(Long tableId, Integer tableNumber, Integer capacity, RestaurantTable.TableStatus status) {
+        AvailableTable previous = tables.remove(tableId);
+        if (previous != null) {
+            tableIdsByCapacity.get(previous.capacity()).remove(tableId);
+        }
+        if (status != RestaurantTable.TableStatus.OUT_OF_ORDER) {
+            tables.put(tableId, new AvailableTable(tableId, tableNumber, capacity));
+            tableIdsByCapacity.computeIfAbsent(capacity, c -> new LinkedHashSet<>()).add(tableId);
+        }
+    }
+    
+    private void add(Long reservationId, Long tableId, LocalDateTime start, LocalDateTime end) {
+        intervalsByTable.computeIfAbsent(tableId, id -> new TreeMap<>()).put(start, new Interval(reservationId, start, end));
+    }
+    
+    private void remove(Long tableId, LocalDateTime start, Long reservationId) {
+        TreeMap<LocalDateTime, Interval> intervals = intervalsByTable.get(tableId);
+        if (intervals != null) {
+            Interval interval = intervals.get(start);
+            if (interval != null && interval.reservationId().equals(reservationId)) {
+                intervals.remove(start);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.hotelmanagement.tableservice.service;
+
+import com.hotelmanagement.tableservice.entity.TableReservation;
+import com.hotelmanagement.tableservice.event.ReservationChangedEvent;
+import com.hotelmanagement.tableservice.repository.TableReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class ReservationService {
+    
+    @Autowired
+    private TableReservationRepository reservationRepository;
+    
+    @Autowired
+    private ReservationIndex reservationIndex;
+    
+    @Autowired
+    private TableLockStripes tableLocks;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    public List<ReservationIndex.AvailableTable> findAvailableTables(Integer partySize, LocalDateTime startTime, Integer durationMinutes) {
+        return reservationIndex.findAvailable(partySize, startTime, startTime.plusMinutes(durationMinutes));
+    }
+    
+    public List<TableReservation> getReservationsBetween(LocalDateTime startTime, LocalDateTime endTime) {
+        return reservationRepository.findByStartTimeBetweenOrderByStartTimeAsc(startTime, endTime);
+    }
+    
+    public Optional<TableReservation> getReservationById(Long id) {
+        return reservationRepository.findById(id);
+    }
+    
+    // Holds the requested table, or the best-fitting free table when none is given
+    public TableReservation createReservation(TableReservation reservation) {
+        if (reservation.getStartTime().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Reservation start time " + reservation.getStartTime() + " is in the past");
+        }
+        // Always a new row: an id in the request body must not overwrite an existing reservation
+        reservation.setId(null);
+        reservation.setVersion(null);
+        reservation.setStatus(TableReservation.ReservationStatus.CONFIRMED);
+        if (reservation.getTableId() != null) {
+            TableReservation saved = tryReserve(reservation.getTableId(), reservation);
+            if (saved == null) {
+                throw new SeatingConflictException("Table " + reservation.getTableId() + " cannot take this reservation at "
+                        + reservation.getStartTime());
+            }
+            return saved;
+        }
+        
+        List<ReservationIndex.AvailableTable> candidates = reservationIndex.findAvailable(
+                reservation.getPartySize(), reservation.getStartTime(), reservation.getEndTime());
+        for (ReservationIndex.AvailableTable candidate : candidates) {
+            TableReservation saved = tryReserve(candidate.tableId(), reservation);
+            if (saved != null) {
+                return saved;
+            }
+        }
+        throw new SeatingConflictException("No table for " + reservation.getPartySize() + " is free at "
+                + reservation.getStartTime());
+    }
+    
+    public boolean cancelReservation(Long id) {
+        Optional<TableReservation> optionalReservation = reservationRepository.findById(id);
+        if (optionalReservation.isEmpty()) {
+            return false;
+        }
+        return tableLocks.withTableLock(optionalReservation.get().getTableId(), () -> Boolean.TRUE.equals(transactionTemplate.execute(tx -> {
+            Optional<TableReservation> current = reservationRepository.findById(id);
+            if (current.isPresent()) {
+                TableReservation reservation = current.get();
+                reservation.setStatus(TableReservation.ReservationStatus.CANCELLED);
+                reservationRepository.save(reservation);
+                eventPublisher.publishEvent(ReservationChangedEvent.of(reservation));
+                return true;
+            }
+            return false;
+        })));
+    }
+    
+    // Re-checks capacity and overlap under the table lock; the index is updated on commit, still under the lock
+    private TableReservation tryReserve(Long tableId, TableReservation reservation) {
+        return tableLocks.withTableLock(tableId, () -> {
+            ReservationIndex.AvailableTable table = reservationIndex.getTable(tableId);
+            if (table == null || table.capacity() < reservation.getPartySize()
+                    || !reservationIndex.isFree(tableId, reservation.getStartTime(), reservation.getEndTime())) {
+                return null;
+            }
+            return transactionTemplate.execute(tx -> {
+                reservation.setTableId(tableId);
+                TableReservation saved = reservationRepository.save(reservation);
+                eventPublisher.publishEvent(ReservationChangedEvent.of(saved));
+                return saved;
+            });
+        });
+    }
+}
@@ -0,0 +1,144 @@
+package com.hotelmanagement.tableservice.service;
+
+import com.hotelmanagement.tableservice.entity.RestaurantTable;
+import com.hotelmanagement.tableservice.event.TableStatusChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Resident best-fit allocator for available tables.
+ * Each table gets a dense slot number; available slots are kept in one BitSet per capacity,
+ * so the smallest fitting table is a ceiling lookup plus nextSetBit with no DB round trip.
+ */
+@Component
+public class SeatingAllocator {
+    
+    @Autowired
+    private EventJournal eventJournal;
+    
+    private final Map<Long, Integer> slotByTableId = new HashMap<>();
+    private final List<Long> tableIdBySlot = new ArrayList<>();
+    private final List<Integer> capacityBySlot = new ArrayList<>();
+    private final TreeMap<Integer, BitSet> availableByCapacity = new TreeMap<>();
+    private final TreeMap<Integer, BitSet> inServiceByCapacity = new TreeMap<>();
+    
+    @PostConstruct
+    public void load() {
+        FloorState state = eventJournal.copyState();
+        synchronized (this) {
+            slotByTableId.clear();
+            tableIdBySlot.clear();
+            capacityBySlot.clear();
+            availableByCapacity.clear();
+            inServiceByCapacity.clear();
+            for (Map.Entry<Long, FloorState.TableState> table : state.tables.entrySet()) {
+                update(table.getKey(), table.getValue().capacity(), table.getValue().status());
+            }
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTableStatusChanged(TableStatusChangedEvent event) {
+        update(event.tableId(), event.capacity(), event.status());
+    }
+    
+    public synchronized void update(Long tableId, int capacity, RestaurantTable.TableStatus status) {
+        Integer slot = slotByTableId.get(tableId);
+        if (slot == null) {
+            slot = tableIdBySlot.size();
+            slotByTableId.put(tableId, slot);
+            tableIdBySlot.add(tableId);
+            capacityBySlot.add(capacity);
+        } else {
+            clear(slot);
+            capacityBySlot.set(slot, capacity);
+        }
+        if (status == RestaurantTable.TableStatus.AVAILABLE) {
+            availableByCapacity.computeIfAbsent(capacity, c -> new BitSet()).set(slot);
+        }
+        if (status != RestaurantTable.TableStatus.OUT_OF_ORDER) {
+            inServiceByCapacity.computeIfAbsent(capacity, c -> new BitSet()).set(slot);
+        }
+    }
+    
+    /**
+     * Picks the smallest available table that seats the party and that the caller can use, and
+     * removes it from the pool, so concurrent callers never receive the same table. Callers that
+     * end up not seating anyone at it hand it back through update() with the table's status as
+     * read under its table lock.
+     */
+    public synchronized Optional<Long> claimBestFit(int partySize, Predicate<Long> usable) {
+        for (Map.Entry<Integer, BitSet> bucket : availableByCapacity.tailMap(partySize, true).entrySet()) {
+            BitSet available = bucket.getValue();
+            for (int slot = available.nextSetBit(0); slot >= 0; slot = available.nextSetBit(slot + 1)) {
+                if (usable.test(tableIdBySlot.get(slot))) {
+                    available.clear(slot);
+                    return Optional.of(tableIdBySlot.get(slot));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+    
+    /**
+     * Claims every table of a group at once, or none of them if any is not free or not usable,
+     * for seating one party at tables pushed together. Unused claims are handed back the same way
+     * as claimBestFit's.
+     */
+    public synchronized boolean claimAll(List<Long> tableIds, Predicate<Long> usable) {
+        List<Integer> slots = new ArrayList<>();
+        for (Long tableId : tableIds) {
+            Integer slot = slotByTableId.get(tableId);
+            if (slot == null || !isAvailable(slot) || !usable.test(tableId)) {
+                return false;
+            }
+            slots.add(slot);
+        }
+        for (Integer slot : slots) {
+            availableByCapacity.get(capacityBySlot.get(slot)).clear(slot);
+        }
+        return true;
+    }
+    
+    public synchronized boolean isAvailable(Long tableId) {
+        Integer slot = slotByTableId.get(tableId);
+        return slot != null && isAvailable(slot);
+    }
+    
+    // Number of tables that can seat the party, either free right now or merely in service
+    public synchronized int countFitting(int partySize, boolean availableOnly) {
+        TreeMap<Integer, BitSet> buckets = availableOnly ? availableByCapacity : inServiceByCapacity;
+        int count = 0;
+        for (BitSet bucket : buckets.tailMap(partySize, true).values()) {
+            count += bucket.cardinality();
+        }
+        return count;
+    }
+    
+    private boolean isAvailable(int slot) {
+        BitSet available = availableByCapacity.get(capacityBySlot.get(slot));
+        return available != null && available.get(slot);
+    }
+    
+    private void clear(int slot) {
+        BitSet available = availableByCapacity.get(capacityBySlot.get(slot));
+        if (available != null) {
+            available.clear(slot);
+        }
+        BitSet inService = inServiceByCapacity.get(capacityBySlot.get(slot));
+        if (inService != null) {
+            inService.clear(slot);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.hotelmanagement.tableservice.service;
+
+/**
+ * Thrown when a booking or table is not in a state that allows the requested transition,
+ * typically because another host already acted on it.
+ */
+public class SeatingConflictException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public SeatingConflictException(String message) {
+        super(message);
+    }
+}
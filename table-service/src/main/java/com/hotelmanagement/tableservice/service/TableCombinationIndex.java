@@ -0,0 +1,186 @@
+package com.hotelmanagement.tableservice.service;
+
+import com.hotelmanagement.tableservice.entity.RestaurantTable;
+import com.hotelmanagement.tableservice.event.TableLayoutChangedEvent;
+import com.hotelmanagement.tableservice.repository.RestaurantTableRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Precomputed groups of adjacent tables that can be pushed together for parties no single
+ * table seats. Two tables are adjacent when either lists the other in adjacentTableNumbers and
+ * both share a locationDescription; every connected group of 2..max-tables tables is enumerated
+ * when the layout changes and bucketed by total capacity. Finding a group at request time is a
+ * ceiling lookup plus an availability check per candidate, never a combinatorial search.
+ */
+@Component
+public class TableCombinationIndex {
+    
+    public record Combination(List<Long> tableIds, List<Integer> tableNumbers, int capacity) {
+    }
+    
+    @Autowired
+    private RestaurantTableRepository tableRepository;
+    
+    @Autowired
+    private SeatingAllocator seatingAllocator;
+    
+    @Value("${table-service.combinations.max-tables:3}")
+    private int maxTables;
+    
+    private final TreeMap<Integer, List<Combination>> candidatesByCapacity = new TreeMap<>();
+    
+    @PostConstruct
+    public void load() {
+        List<RestaurantTable> tables = tableRepository.findAll();
+        synchronized (this) {
+            rebuild(tables);
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTableLayoutChanged(TableLayoutChangedEvent event) {
+        load();
+    }
+    
+    // Smallest free, usable group that seats the party (fewest tables on ties), without claiming it
+    public synchronized Optional<Combination> findBestFit(int partySize, Predicate<Long> usable) {
+        for (List<Combination> bucket : candidatesByCapacity.tailMap(partySize, true).values()) {
+            for (Combination candidate : bucket) {
+                if (candidate.tableIds().stream().allMatch(id -> seatingAllocator.isAvailable(id) && usable.test(id))) {
+                    return Optional.of(candidate);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+    
+    /**
+     * Like findBestFit, but claims the group's tables from SeatingAllocator, the same pool single
+     * tables are claimed from, so no two callers ever receive overlapping tables. Unused claims are
+     * handed back to SeatingAllocator like any other.
+     */
+    public synchronized Optional<Combination> claimBestFit(int partySize, Predicate<Long> usable) {
+        for (List<Combination> bucket : candidatesByCapacity.tailMap(partySize, true).values()) {
+            for (Combination candidate : bucket) {
+                if (seatingAllocator.claimAll(candidate.tableIds(), usable)) {
+                    return Optional.of(candidate);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+    
+    private void rebuild(List<RestaurantTable> tables) {
+        candidatesByCapacity.clear();
+        
+        List<RestaurantTable> bySlot = new ArrayList<>(tables);
+        bySlot.sort(Comparator.comparing(RestaurantTable::getTableNumber));
+        Map<Integer, Integer> slotByNumber = new HashMap<>();
+        for (int slot = 0; slot < bySlot.size(); slot++) {
+            slotByNumber.put(bySlot.get(slot).getTableNumber(), slot);
+        }
+        
+        List<BitSet> neighbours = new ArrayList<>();
+        for (int slot = 0; slot < bySlot.size(); slot++) {
+            neighbours.add(new BitSet());
+        }
+        for (int slot = 0; slot < bySlot.size(); slot++) {
+            RestaurantTable table = bySlot.get(slot);
+            for (Integer number : parseNumbers(table.getAdjacentTableNumbers())) {
+                Integer other = slotByNumber.get(number);
+                if (other != null && other != slot && sameLocation(table, bySlot.get(other))) {
+                    neighbours.get(slot).set(other);
+                    neighbours.get(other).set(slot);
+                }
+            }
+        }
+        
+        // Grow connected groups one neighbouring table at a time; the set dedupes groups reached by different paths
+        Set<BitSet> seen = new HashSet<>();
+        List<BitSet> frontier = new ArrayList<>();
+        for (int slot = 0; slot < bySlot.size(); slot++) {
+            BitSet single = new BitSet();
+            single.set(slot);
+            frontier.add(single);
+        }
+        for (int size = 2; size <= maxTables && !frontier.isEmpty(); size++) {
+            List<BitSet> next = new ArrayList<>();
+            for (BitSet group : frontier) {
+                BitSet reachable = new BitSet();
+                for (int member = group.nextSetBit(0); member >= 0; member = group.nextSetBit(member + 1)) {
+                    reachable.or(neighbours.get(member));
+                }
+                reachable.andNot(group);
+                for (int added = reachable.nextSetBit(0); added >= 0; added = reachable.nextSetBit(added + 1)) {
+                    BitSet grown = (BitSet) group.clone();
+                    grown.set(added);
+                    if (seen.add(grown)) {
+                        next.add(grown);
+                        index(grown, bySlot);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        for (List<Combination> bucket : candidatesByCapacity.values()) {
+            bucket.sort(Comparator.comparingInt(c -> c.tableIds().size()));
+        }
+    }
+    
+    private void index(BitSet slots, List<RestaurantTable> bySlot) {
+        List<Long> tableIds = new ArrayList<>();
+        List<Integer> tableNumbers = new ArrayList<>();
+        int capacity = 0;
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            RestaurantTable table = bySlot.get(slot);
+            tableIds.add(table.getId());
+            tableNumbers.add(table.getTableNumber());
+            capacity += table.getCapacity();
+        }
+        candidatesByCapacity.computeIfAbsent(capacity, c -> new ArrayList<>())
+                .add(new Combination(List.copyOf(tableIds), List.copyOf(tableNumbers), capacity));
+    }
+    
+    private static boolean sameLocation(RestaurantTable a, RestaurantTable b) {
+        return locationKey(a).equals(locationKey(b));
+    }
+    
+    private static String locationKey(RestaurantTable table) {
+        return table.getLocationDescription() == null ? "" : table.getLocationDescription().trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static List<Integer> parseNumbers(String numbers) {
+        List<Integer> parsed = new ArrayList<>();
+        if (numbers == null) {
+            return parsed;
+        }
+        for (String part : numbers.split(",")) {
+            String trimmed = part.trim();
+            if (!trimmed.isEmpty()) {
+                try {
+                    parsed.add(Integer.valueOf(trimmed));
+                } catch (NumberFormatException e) {
+                    // Ignore malformed entries rather than dropping the whole layout
+                }
+            }
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,65 @@
+package com.hotelmanagement.tableservice.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed pool of locks striped by table id. Mutations of one table are serialized in-process
+ * while unrelated tables proceed in parallel; @Version checks cover other service instances.
+ */
+@Component
+public class TableLockStripes {
+    
+    private static final int STRIPE_COUNT = 64;
+    
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPE_COUNT];
+    
+    public TableLockStripes() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+    
+    public <T> T withTableLock(Long tableId, Supplier<T> action) {
+        if (tableId == null) {
+            return action.get();
+        }
+        ReentrantLock lock = stripes[stripeOf(tableId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Locks every stripe the tables map to, always in ascending stripe order so two callers can't deadlock
+    public <T> T withTableLocks(Collection<Long> tableIds, Supplier<T> action) {
+        int[] stripeIndexes = tableIds.stream()
+                .filter(Objects::nonNull)
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .toArray();
+        int locked = 0;
+        try {
+            for (int index : stripeIndexes) {
+                stripes[index].lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[stripeIndexes[i]].unlock();
+            }
+        }
+    }
+    
+    private int stripeOf(Long tableId) {
+        return Math.floorMod(tableId.hashCode(), STRIPE_COUNT);
+    }
+}
@@ -2,15 +2,36 @@ package com.hotelmanagement.tableservice.service;
 
 import com.hotelmanagement.tableservice.entity.RestaurantTable;
 import com.hotelmanagement.tableservice.entity.TableBooking;
+import com.hotelmanagement.tableservice.entity.TableReservation;
+import com.hotelmanagement.tableservice.entity.WaitTimeRollup;
+import com.hotelmanagement.tableservice.event.BookingStatusChangedEvent;
+import com.hotelmanagement.tableservice.event.TableLayoutChangedEvent;
+import com.hotelmanagement.tableservice.event.TableStatusChangedEvent;
+import com.hotelmanagement.tableservice.repository.BookingCursor;
+import com.hotelmanagement.tableservice.repository.BookingFilter;
+import com.hotelmanagement.tableservice.repository.BookingStore;
+import com.hotelmanagement.tableservice.repository.BookingView;
 import com.hotelmanagement.tableservice.repository.RestaurantTableRepository;
 import com.hotelmanagement.tableservice.repository.TableBookingRepository;
+import com.hotelmanagement.tableservice.repository.TableReservationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TableService {
@@ -21,13 +42,52 @@ public class TableService {
     @Autowired
     private TableBookingRepository bookingRepository;
     
-    // Table Management
-    public List<RestaurantTable> getAllTables() {
-        return tableRepository.findAll();
-    }
+    @Autowired
+    private BookingStore bookingStore;
+    
+    @Autowired
+    private SeatingAllocator seatingAllocator;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private FloorCounters floorCounters;
+    
+    @Autowired
+    private WaitTimeEstimator waitTimeEstimator;
+    
+    @Autowired
+    private WaitTimeRollups waitTimeRollups;
+    
+    @Autowired
+    private CustomerHistoryIndex customerHistoryIndex;
+    
+    @Autowired
+    private FloorSnapshotCache floorSnapshots;
+    
+    @Autowired
+    private TableCombinationIndex tableCombinations;
+    
+    @Autowired
+    private ReservationIndex reservationIndex;
+    
+    @Autowired
+    private TableReservationRepository reservationRepository;
+    
+    @Autowired
+    private TableLockStripes tableLocks;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${table-service.booking.export-fetch-size:500}")
+    private int exportFetchSize;
     
-    public List<RestaurantTable> getAvailableTables() {
-        return tableRepository.findByStatus(RestaurantTable.TableStatus.AVAILABLE);
+    // Table Management
+    // Current floor with its version and cached JSON for the listing endpoints
+    public FloorSnapshotCache.FloorSnapshot getFloorSnapshot() {
+        return floorSnapshots.get();
     }
     
     public List<RestaurantTable> getAvailableTablesByCapacity(Integer minCapacity) {
@@ -39,120 +99,393 @@ public class TableService {
     }
     
     public RestaurantTable saveTable(RestaurantTable table) {
-        return tableRepository.save(table);
+        return tableLocks.withTableLock(table.getId(), () -> transactionTemplate.execute(tx -> {
+            RestaurantTable.TableStatus previousStatus = table.getId() != null
+                    ? tableRepository.findById(table.getId()).map(RestaurantTable::getStatus).orElse(null)
+                    : null;
+            RestaurantTable savedTable = tableRepository.save(table);
+            eventPublisher.publishEvent(TableStatusChangedEvent.of(savedTable, previousStatus));
+            eventPublisher.publishEvent(new TableLayoutChangedEvent(savedTable.getId()));
+            return savedTable;
+        }));
     }
     
     public RestaurantTable updateTableStatus(Long tableId, RestaurantTable.TableStatus status) {
-        Optional<RestaurantTable> optionalTable = tableRepository.findById(tableId);
-        if (optionalTable.isPresent()) {
-            RestaurantTable table = optionalTable.get();
-            table.setStatus(status);
-            return tableRepository.save(table);
-        }
-        return null;
+        return tableLocks.withTableLock(tableId, () -> transactionTemplate.execute(tx -> {
+            Optional<RestaurantTable> optionalTable = tableRepository.findById(tableId);
+            if (optionalTable.isPresent()) {
+                RestaurantTable table = optionalTable.get();
+                RestaurantTable.TableStatus previousStatus = table.getStatus();
+                table.setStatus(status);
+                RestaurantTable savedTable = tableRepository.save(table);
+                eventPublisher.publishEvent(TableStatusChangedEvent.of(savedTable, previousStatus));
+                return savedTable;
+            }
+            return null;
+        }));
     }
     
     // Booking Management
     public TableBooking createBooking(TableBooking booking) {
         booking.setEstimatedWaitTime(calculateEstimatedWaitTime(booking.getPartySize()));
-        return bookingRepository.save(booking);
+        return transactionTemplate.execute(tx -> {
+            TableBooking savedBooking = bookingRepository.save(booking);
+            eventPublisher.publishEvent(BookingStatusChangedEvent.of(savedBooking, null));
+            return savedBooking;
+        });
+    }
+    
+    // Inserts the whole batch in one transaction; wait estimates come from a single counter snapshot
+    public List<TableBooking> createBookings(List<TableBooking> bookings) {
+        long waitingCount = floorCounters.getWaitingCount();
+        for (int i = 0; i < bookings.size(); i++) {
+            TableBooking booking = bookings.get(i);
+            int partySize = booking.getPartySize();
+            booking.setEstimatedWaitTime(waitTimeEstimator.estimateWaitMinutes(partySize, waitingCount + i,
+                    seatingAllocator.countFitting(partySize, true),
+                    seatingAllocator.countFitting(partySize, false)));
+        }
+        return transactionTemplate.execute(tx -> {
+            List<TableBooking> savedBookings = bookingRepository.saveAll(bookings);
+            for (TableBooking savedBooking : savedBookings) {
+                eventPublisher.publishEvent(BookingStatusChangedEvent.of(savedBooking, null));
+            }
+            return savedBookings;
+        });
     }
     
-    public List<TableBooking> getWaitingBookings() {
-        return bookingRepository.findWaitingBookingsOrderByTime();
+    // Read models: one statement per list, table reduced to id and number
+    public List<BookingView> getWaitingBookings() {
+        return bookingRepository.findWaitingBookingViews();
     }
     
-    public List<TableBooking> getAllBookings() {
-        return bookingRepository.findAll();
+    public List<BookingView> getBookingsPage(BookingFilter filter, BookingCursor after, boolean descending, int limit) {
+        return bookingStore.findPage(filter, after, descending, limit);
     }
     
-    public Optional<TableBooking> getBookingById(Long id) {
-        return bookingRepository.findById(id);
+    // Streams every matching booking to the sink while holding only one fetch-size window in memory
+    @Transactional(readOnly = true)
+    public void exportBookings(BookingFilter filter, Consumer<BookingView> sink) {
+        try (Stream<BookingView> bookings = bookingStore.streamAll(filter, exportFetchSize)) {
+            bookings.forEach(sink);
+        }
+    }
+    
+    public Optional<BookingView> getBookingById(Long id) {
+        return bookingStore.findViewById(id);
     }
     
+    // Table lock is held until the transaction commits, so two hosts can never seat the same table
     public TableBooking seatCustomer(Long bookingId, Long tableId) {
+        return tableLocks.withTableLock(tableId, () -> transactionTemplate.execute(tx -> {
+            Optional<TableBooking> optionalBooking = bookingRepository.findById(bookingId);
+            Optional<RestaurantTable> optionalTable = tableRepository.findById(tableId);
+            
+            if (optionalBooking.isPresent() && optionalTable.isPresent()) {
+                TableBooking booking = optionalBooking.get();
+                RestaurantTable table = optionalTable.get();
+                
+                if (booking.getStatus() != TableBooking.BookingStatus.WAITING) {
+                    throw new SeatingConflictException("Booking " + bookingId + " is " + booking.getStatus() + ", not WAITING");
+                }
+                if (table.getStatus() == RestaurantTable.TableStatus.OCCUPIED
+                        || table.getStatus() == RestaurantTable.TableStatus.OUT_OF_ORDER) {
+                    throw new SeatingConflictException("Table " + table.getTableNumber() + " is " + table.getStatus());
+                }
+                checkNotReserved(table, booking);
+                
+                // Update booking
+                booking.setTable(table);
+                booking.setStatus(TableBooking.BookingStatus.SEATED);
+                booking.setActualSeatTime(LocalDateTime.now());
+                
+                // Update table status
+                RestaurantTable.TableStatus previousStatus = table.getStatus();
+                table.setStatus(RestaurantTable.TableStatus.OCCUPIED);
+                
+                tableRepository.save(table);
+                TableBooking savedBooking = bookingRepository.save(booking);
+                eventPublisher.publishEvent(TableStatusChangedEvent.of(table, previousStatus));
+                eventPublisher.publishEvent(BookingStatusChangedEvent.of(savedBooking, TableBooking.BookingStatus.WAITING));
+                return savedBooking;
+            }
+            return null;
+        }));
+    }
+    
+    // Seats a waiting party at the smallest free table that fits; null if the booking does not exist,
+    // SeatingConflictException if it is not waiting or nothing on the floor fits
+    public TableBooking autoSeatCustomer(Long bookingId) {
         Optional<TableBooking> optionalBooking = bookingRepository.findById(bookingId);
-        Optional<RestaurantTable> optionalTable = tableRepository.findById(tableId);
+        if (optionalBooking.isEmpty()) {
+            return null;
+        }
+        if (optionalBooking.get().getStatus() != TableBooking.BookingStatus.WAITING) {
+            throw new SeatingConflictException("Booking " + bookingId + " is " + optionalBooking.get().getStatus() + ", not WAITING");
+        }
+        
+        int partySize = optionalBooking.get().getPartySize();
+        Optional<Long> tableId = seatingAllocator.claimBestFit(partySize, freeOfReservations(partySize));
+        if (tableId.isEmpty()) {
+            TableBooking seatedBooking = autoSeatAtCombination(bookingId, partySize);
+            if (seatedBooking == null) {
+                throw new SeatingConflictException("No free table fits a party of " + partySize);
+            }
+            return seatedBooking;
+        }
+        
+        TableBooking seatedBooking = null;
+        try {
+            seatedBooking = seatCustomer(bookingId, tableId.get());
+        } finally {
+            if (seatedBooking == null) {
+                releaseClaims(List.of(tableId.get()));
+            }
+        }
+        return seatedBooking;
+    }
+    
+    // Unused claims go back to the allocator only as the database has the tables now, never blindly as free
+    private void releaseClaims(List<Long> tableIds) {
+        tableLocks.withTableLocks(tableIds, () -> {
+            for (RestaurantTable table : tableRepository.findAllById(tableIds)) {
+                seatingAllocator.update(table.getId(), table.getCapacity(), table.getStatus());
+            }
+            return null;
+        });
+    }
+    
+    // No single table fits: seat the party at the smallest free group of adjacent tables
+    private TableBooking autoSeatAtCombination(Long bookingId, int partySize) {
+        Optional<TableCombinationIndex.Combination> combination = tableCombinations.claimBestFit(partySize, freeOfReservations(partySize));
+        if (combination.isEmpty()) {
+            return null;
+        }
         
-        if (optionalBooking.isPresent() && optionalTable.isPresent()) {
+        TableBooking seatedBooking = null;
+        try {
+            seatedBooking = seatCustomerAtTables(bookingId, combination.get().tableIds());
+        } finally {
+            if (seatedBooking == null) {
+                releaseClaims(combination.get().tableIds());
+            }
+        }
+        return seatedBooking;
+    }
+    
+    // A walk-in only gets a table with no reservation starting before the party is expected to leave
+    private Predicate<Long> freeOfReservations(int partySize) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaving = expectedLeavingTime(partySize, now);
+        return tableId -> reservationIndex.isFree(tableId, now, leaving);
+    }
+    
+    private LocalDateTime expectedLeavingTime(int partySize, LocalDateTime now) {
+        return now.plusMinutes((long) Math.ceil(waitTimeEstimator.getExpectedTurnMinutes(partySize, now.getHour())));
+    }
+    
+    // Same rule under the table lock, except that the holder of the reservation may be seated at their own table
+    private void checkNotReserved(RestaurantTable table, TableBooking booking) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaving = expectedLeavingTime(booking.getPartySize(), now);
+        if (reservationIndex.isFree(table.getId(), now, leaving)) {
+            return;
+        }
+        // Reservations last at most 360 minutes, so older starts cannot reach into the window
+        for (TableReservation reservation : reservationRepository.findByTableIdAndStatusAndStartTimeBetween(table.getId(),
+                TableReservation.ReservationStatus.CONFIRMED, now.minusMinutes(360), leaving)) {
+            if (reservation.getEndTime().isAfter(now) && reservation.getStartTime().isBefore(leaving)
+                    && !reservation.getCustomerPhone().equals(booking.getCustomerPhone())) {
+                throw new SeatingConflictException("Table " + table.getTableNumber() + " is reserved from "
+                        + reservation.getStartTime() + " for another party");
+            }
+        }
+    }
+    
+    // Seats one party across several tables pushed together; the first is recorded as the booking's table
+    public TableBooking seatCustomerAtTables(Long bookingId, List<Long> tableIds) {
+        return tableLocks.withTableLocks(tableIds, () -> transactionTemplate.execute(tx -> {
+            Optional<TableBooking> optionalBooking = bookingRepository.findById(bookingId);
+            Map<Long, RestaurantTable> tablesById = new HashMap<>();
+            for (RestaurantTable table : tableRepository.findAllById(tableIds)) {
+                tablesById.put(table.getId(), table);
+            }
+            if (optionalBooking.isEmpty() || tablesById.size() != new HashSet<>(tableIds).size()) {
+                return null;
+            }
+            
             TableBooking booking = optionalBooking.get();
-            RestaurantTable table = optionalTable.get();
+            if (booking.getStatus() != TableBooking.BookingStatus.WAITING) {
+                throw new SeatingConflictException("Booking " + bookingId + " is " + booking.getStatus() + ", not WAITING");
+            }
+            for (RestaurantTable table : tablesById.values()) {
+                if (table.getStatus() == RestaurantTable.TableStatus.OCCUPIED
+                        || table.getStatus() == RestaurantTable.TableStatus.OUT_OF_ORDER) {
+                    throw new SeatingConflictException("Table " + table.getTableNumber() + " is " + table.getStatus());
+                }
+                checkNotReserved(table, booking);
+            }
             
-            // Update booking
-            booking.setTable(table);
+            booking.setTable(tablesById.get(tableIds.get(0)));
+            booking.setJoinedTableIds(tableIds.size() > 1
+                    ? tableIds.subList(1, tableIds.size()).stream().map(String::valueOf).collect(Collectors.joining(","))
+                    : null);
             booking.setStatus(TableBooking.BookingStatus.SEATED);
             booking.setActualSeatTime(LocalDateTime.now());
             
-            // Update table status
-            table.setStatus(RestaurantTable.TableStatus.OCCUPIED);
-            
-            tableRepository.save(table);
-            return bookingRepository.save(booking);
-        }
-        return null;
+            for (RestaurantTable table : tablesById.values()) {
+                RestaurantTable.TableStatus previousStatus = table.getStatus();
+                table.setStatus(RestaurantTable.TableStatus.OCCUPIED);
+                tableRepository.save(table);
+                eventPublisher.publishEvent(TableStatusChangedEvent.of(table, previousStatus));
+            }
+            TableBooking savedBooking = bookingRepository.save(booking);
+            eventPublisher.publishEvent(BookingStatusChangedEvent.of(savedBooking, TableBooking.BookingStatus.WAITING));
+            return savedBooking;
+        }));
+    }
+    
+    public Optional<TableCombinationIndex.Combination> findTableCombination(Integer partySize) {
+        return tableCombinations.findBestFit(partySize, freeOfReservations(partySize));
     }
     
     public TableBooking completeBooking(Long bookingId) {
         Optional<TableBooking> optionalBooking = bookingRepository.findById(bookingId);
-        if (optionalBooking.isPresent()) {
-            TableBooking booking = optionalBooking.get();
+        if (optionalBooking.isEmpty()) {
+            return null;
+        }
+        List<Long> tableIds = seatedTableIds(optionalBooking.get());
+        
+        return tableLocks.withTableLocks(tableIds, () -> transactionTemplate.execute(tx -> {
+            TableBooking booking = bookingRepository.findById(bookingId).orElse(null);
+            if (booking == null) {
+                return null;
+            }
+            if (!tableIds.equals(seatedTableIds(booking))) {
+                throw new SeatingConflictException("Booking " + bookingId + " was moved to another table");
+            }
+            if (booking.getStatus() == TableBooking.BookingStatus.COMPLETED
+                    || booking.getStatus() == TableBooking.BookingStatus.CANCELLED
+                    || booking.getStatus() == TableBooking.BookingStatus.NO_SHOW) {
+                throw new SeatingConflictException("Booking " + bookingId + " is already " + booking.getStatus());
+            }
+            
+            TableBooking.BookingStatus previousBookingStatus = booking.getStatus();
             booking.setStatus(TableBooking.BookingStatus.COMPLETED);
             booking.setCheckoutTime(LocalDateTime.now());
             
-            // Free up the table
-            if (booking.getTable() != null) {
-                RestaurantTable table = booking.getTable();
+            // Free up the table, and any tables pushed together with it
+            for (RestaurantTable table : tableRepository.findAllById(tableIds)) {
+                RestaurantTable.TableStatus previousStatus = table.getStatus();
                 table.setStatus(RestaurantTable.TableStatus.AVAILABLE);
                 tableRepository.save(table);
+                eventPublisher.publishEvent(TableStatusChangedEvent.of(table, previousStatus));
             }
             
-            return bookingRepository.save(booking);
+            TableBooking savedBooking = bookingRepository.save(booking);
+            eventPublisher.publishEvent(BookingStatusChangedEvent.of(savedBooking, previousBookingStatus));
+            return savedBooking;
+        }));
+    }
+    
+    private static List<Long> seatedTableIds(TableBooking booking) {
+        List<Long> tableIds = new ArrayList<>();
+        if (booking.getTable() != null) {
+            tableIds.add(booking.getTable().getId());
+        }
+        if (booking.getJoinedTableIds() != null && !booking.getJoinedTableIds().isBlank()) {
+            for (String id : booking.getJoinedTableIds().split(",")) {
+                tableIds.add(Long.valueOf(id.trim()));
+            }
         }
-        return null;
+        return tableIds;
     }
     
+    // A seated party that cancels frees its tables in the same transaction
     public boolean cancelBooking(Long bookingId) {
         Optional<TableBooking> optionalBooking = bookingRepository.findById(bookingId);
-        if (optionalBooking.isPresent()) {
-            TableBooking booking = optionalBooking.get();
+        if (optionalBooking.isEmpty()) {
+            return false;
+        }
+        List<Long> tableIds = seatedTableIds(optionalBooking.get());
+        
+        return Boolean.TRUE.equals(tableLocks.withTableLocks(tableIds, () -> transactionTemplate.execute(tx -> {
+            TableBooking booking = bookingRepository.findById(bookingId).orElse(null);
+            if (booking == null) {
+                return false;
+            }
+            if (!tableIds.equals(seatedTableIds(booking))) {
+                throw new SeatingConflictException("Booking " + bookingId + " was moved to another table");
+            }
+            if (booking.getStatus() == TableBooking.BookingStatus.COMPLETED
+                    || booking.getStatus() == TableBooking.BookingStatus.CANCELLED
+                    || booking.getStatus() == TableBooking.BookingStatus.NO_SHOW) {
+                throw new SeatingConflictException("Booking " + bookingId + " is already " + booking.getStatus());
+            }
+            
+            TableBooking.BookingStatus previousBookingStatus = booking.getStatus();
             booking.setStatus(TableBooking.BookingStatus.CANCELLED);
+            if (previousBookingStatus == TableBooking.BookingStatus.SEATED) {
+                for (RestaurantTable table : tableRepository.findAllById(tableIds)) {
+                    RestaurantTable.TableStatus previousStatus = table.getStatus();
+                    table.setStatus(RestaurantTable.TableStatus.AVAILABLE);
+                    tableRepository.save(table);
+                    eventPublisher.publishEvent(TableStatusChangedEvent.of(table, previousStatus));
+                }
+            }
             bookingRepository.save(booking);
+            eventPublisher.publishEvent(BookingStatusChangedEvent.of(booking, previousBookingStatus));
             return true;
-        }
-        return false;
+        })));
+    }
+    
+    // Only a booking still in the queue can be marked as a no-show
+    public TableBooking markNoShow(Long bookingId) {
+        return transactionTemplate.execute(tx -> {
+            TableBooking booking = bookingRepository.findById(bookingId).orElse(null);
+            if (booking == null) {
+                return null;
+            }
+            if (booking.getStatus() != TableBooking.BookingStatus.WAITING) {
+                throw new SeatingConflictException("Booking " + bookingId + " is " + booking.getStatus() + ", not WAITING");
+            }
+            booking.setStatus(TableBooking.BookingStatus.NO_SHOW);
+            TableBooking savedBooking = bookingRepository.save(booking);
+            eventPublisher.publishEvent(BookingStatusChangedEvent.of(savedBooking, TableBooking.BookingStatus.WAITING));
+            return savedBooking;
+        });
     }
     
-    // Waiting Time Calculations
+    public CustomerHistoryIndex.CustomerHistory getCustomerHistory(String customerPhone) {
+        return customerHistoryIndex.getHistory(customerPhone);
+    }
+    
+    // Waiting Time Calculations (served from in-memory counters, no queries)
     public Integer calculateEstimatedWaitTime(Integer partySize) {
-        Long waitingCount = bookingRepository.countWaitingBookings();
-        Long availableTables = tableRepository.countAvailableTables();
-        
-        // Base wait time calculation
-        int baseWaitTime = 15; // minutes per party ahead
-        int partyAdjustment = partySize > 4 ? 10 : 0; // larger parties wait longer
-        
-        if (availableTables > 0) {
-            return Math.max(5, (int) (waitingCount * baseWaitTime / Math.max(1, availableTables)) + partyAdjustment);
-        } else {
-            return (int) (waitingCount * baseWaitTime) + partyAdjustment + 20;
-        }
+        return waitTimeEstimator.estimateWaitMinutes(partySize,
+                floorCounters.getWaitingCount(),
+                seatingAllocator.countFitting(partySize, true),
+                seatingAllocator.countFitting(partySize, false));
     }
     
     public Double getAverageWaitTime() {
-        LocalDateTime weekAgo = LocalDateTime.now().minus(7, ChronoUnit.DAYS);
-        Double avgWaitTime = bookingRepository.getAverageWaitTimeFromDate(weekAgo);
-        return avgWaitTime != null ? avgWaitTime : 0.0;
+        return waitTimeRollups.summarize(WaitTimeRollup.Metric.SEAT_WAIT, 7 * 24).mean();
+    }
+    
+    public WaitTimeRollups.Stats getWaitTimeStats(WaitTimeRollup.Metric metric, Integer windowHours) {
+        int hours = Math.max(1, Math.min(windowHours, waitTimeRollups.getMaxWindowHours()));
+        return waitTimeRollups.summarize(metric, hours);
     }
     
     public Long getWaitingCount() {
-        return bookingRepository.countWaitingBookings();
+        return floorCounters.getWaitingCount();
     }
     
     public Long getAvailableTableCount() {
-        return tableRepository.countAvailableTables();
+        return floorCounters.getTableCount(RestaurantTable.TableStatus.AVAILABLE);
     }
     
     public Long getOccupiedTableCount() {
-        return tableRepository.countOccupiedTables();
+        return floorCounters.getTableCount(RestaurantTable.TableStatus.OCCUPIED);
     }
 }
@@ -0,0 +1,62 @@
+package com.hotelmanagement.tableservice.service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket: the token count and the time it was last refilled are swapped
+ * together with a single compare-and-set, and refill is computed lazily from elapsed time,
+ * so no timer or lock is involved on the request path.
+ */
+final class TokenBucket {
+    
+    private record State(double tokens, long refilledAtNanos) {
+    }
+    
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+    
+    TokenBucket(int capacity, double tokensPerMinute, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerMinute / 60_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+    
+    /**
+     * Takes one token, returning 0, or returns how many nanoseconds remain until one is available.
+     */
+    long tryConsume(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            double tokens = available(current, nowNanos);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            long refilledAt = Math.max(nowNanos, current.refilledAtNanos());
+            if (state.compareAndSet(current, new State(tokens - 1, refilledAt))) {
+                return 0;
+            }
+        }
+    }
+    
+    // Gives back a token taken by tryConsume for a request that was rejected elsewhere
+    void refund() {
+        while (true) {
+            State current = state.get();
+            State refunded = new State(Math.min(capacity, current.tokens() + 1), current.refilledAtNanos());
+            if (state.compareAndSet(current, refunded)) {
+                return;
+            }
+        }
+    }
+    
+    // A full bucket is indistinguishable from a new one, so it can be dropped
+    boolean isFull(long nowNanos) {
+        return available(state.get(), nowNanos) >= capacity;
+    }
+    
+    private double available(State current, long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - current.refilledAtNanos());
+        return Math.min(capacity, current.tokens() + elapsed * tokensPerNano);
+    }
+}
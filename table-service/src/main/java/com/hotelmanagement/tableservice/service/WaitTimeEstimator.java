@@ -0,0 +1,163 @@
+package com.hotelmanagement.tableservice.service;
+
+import com.hotelmanagement.tableservice.entity.TableBooking;
+import com.hotelmanagement.tableservice.event.BookingStatusChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Learns table turn times (seat to checkout) from completed bookings as an exponentially
+ * weighted moving average per party-size class and hour of day. Predictions read a single
+ * cell, falling back to the class-wide average and then to a configured default while the
+ * model is still cold. The model is checkpointed to a small CSV file and reloaded on startup.
+ */
+@Component
+public class WaitTimeEstimator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WaitTimeEstimator.class);
+    
+    private static final int[] PARTY_CLASS_UPPER_BOUNDS = {2, 4, 6, Integer.MAX_VALUE};
+    private static final int HOURS = 24;
+    private static final int ALL_HOURS = HOURS;
+    
+    @Value("${table-service.wait-estimator.alpha:0.2}")
+    private double alpha;
+    
+    @Value("${table-service.wait-estimator.min-samples:5}")
+    private int minSamples;
+    
+    @Value("${table-service.wait-estimator.default-turn-minutes:60}")
+    private double defaultTurnMinutes;
+    
+    @Value("${table-service.wait-estimator.checkpoint-file:data/wait-estimator.csv}")
+    private String checkpointFile;
+    
+    // [party class][hour of day, plus one class-wide slot at index ALL_HOURS]
+    private final double[][] turnMinutes = new double[PARTY_CLASS_UPPER_BOUNDS.length][HOURS + 1];
+    private final long[][] samples = new long[PARTY_CLASS_UPPER_BOUNDS.length][HOURS + 1];
+    
+    @PostConstruct
+    public void restore() {
+        Path path = Paths.get(checkpointFile);
+        if (!Files.exists(path)) {
+            return;
+        }
+        try {
+            List<String> lines = Files.readAllLines(path);
+            synchronized (this) {
+                for (String line : lines) {
+                    String[] fields = line.split(",");
+                    if (fields.length != 4 || line.startsWith("#")) {
+                        continue;
+                    }
+                    int partyClass = Integer.parseInt(fields[0]);
+                    int hour = Integer.parseInt(fields[1]);
+                    turnMinutes[partyClass][hour] = Double.parseDouble(fields[2]);
+                    samples[partyClass][hour] = Long.parseLong(fields[3]);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable wait-time checkpoint {}: {}", path, e.getMessage());
+        }
+    }
+    
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${table-service.wait-estimator.checkpoint-interval-ms:300000}",
+               initialDelayString = "${table-service.wait-estimator.checkpoint-interval-ms:300000}")
+    public void checkpoint() {
+        List<String> lines = new ArrayList<>();
+        lines.add("# partyClass,hour,turnMinutes,samples");
+        synchronized (this) {
+            for (int partyClass = 0; partyClass < turnMinutes.length; partyClass++) {
+                for (int hour = 0; hour <= HOURS; hour++) {
+                    if (samples[partyClass][hour] > 0) {
+                        lines.add(partyClass + "," + hour + "," + turnMinutes[partyClass][hour] + "," + samples[partyClass][hour]);
+                    }
+                }
+            }
+        }
+        try {
+            Path path = Paths.get(checkpointFile).toAbsolutePath();
+            Files.createDirectories(path.getParent());
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.write(temp, lines);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not write wait-time checkpoint {}: {}", checkpointFile, e.getMessage());
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        if (event.status() == TableBooking.BookingStatus.COMPLETED
+                && event.previousStatus() != TableBooking.BookingStatus.COMPLETED
+                && event.actualSeatTime() != null && event.checkoutTime() != null) {
+            double minutes = Duration.between(event.actualSeatTime(), event.checkoutTime()).toSeconds() / 60.0;
+            if (minutes > 0) {
+                recordTurn(event.partySize(), event.actualSeatTime().getHour(), minutes);
+            }
+        }
+    }
+    
+    public synchronized void recordTurn(int partySize, int hour, double minutes) {
+        int partyClass = partyClass(partySize);
+        update(partyClass, hour, minutes);
+        update(partyClass, ALL_HOURS, minutes);
+    }
+    
+    public synchronized double getExpectedTurnMinutes(int partySize, int hour) {
+        int partyClass = partyClass(partySize);
+        if (samples[partyClass][hour] >= minSamples) {
+            return turnMinutes[partyClass][hour];
+        }
+        if (samples[partyClass][ALL_HOURS] >= minSamples) {
+            return turnMinutes[partyClass][ALL_HOURS];
+        }
+        return defaultTurnMinutes;
+    }
+    
+    /**
+     * Expected minutes until a new party of the given size is seated. With k fitting tables all
+     * busy and uniformly spread through their turn, one frees up every turn/(k+1) minutes on
+     * average, so the n-th party still needing a table waits about n * turn / (k + 1).
+     */
+    public int estimateWaitMinutes(int partySize, long partiesAhead, int fittingAvailable, int fittingTotal) {
+        long partiesNeedingTable = partiesAhead + 1 - fittingAvailable;
+        if (partiesNeedingTable <= 0) {
+            return 0;
+        }
+        double turn = getExpectedTurnMinutes(partySize, LocalDateTime.now().getHour());
+        return (int) Math.ceil(partiesNeedingTable * turn / (Math.max(1, fittingTotal) + 1));
+    }
+    
+    private void update(int partyClass, int hour, double minutes) {
+        long count = ++samples[partyClass][hour];
+        // Seed with the first observation, then weight recent turns more heavily
+        turnMinutes[partyClass][hour] = count == 1 ? minutes : turnMinutes[partyClass][hour] + alpha * (minutes - turnMinutes[partyClass][hour]);
+    }
+    
+    private static int partyClass(int partySize) {
+        for (int i = 0; i < PARTY_CLASS_UPPER_BOUNDS.length; i++) {
+            if (partySize <= PARTY_CLASS_UPPER_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return PARTY_CLASS_UPPER_BOUNDS.length - 1;
+    }
+}
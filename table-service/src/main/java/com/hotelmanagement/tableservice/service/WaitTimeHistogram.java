@@ -0,0 +1,82 @@
+package com.hotelmanagement.tableservice.service;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Mergeable histogram of durations in whole minutes: one bucket per minute up to MAX_MINUTES,
+ * with everything longer counted in a final overflow bucket. Percentiles are exact to the minute
+ * inside the range, and histograms from different hours merge by adding bucket counts.
+ */
+public class WaitTimeHistogram {
+    
+    public static final int MAX_MINUTES = 240;
+    
+    private final long[] counts = new long[MAX_MINUTES + 2];
+    private long totalCount;
+    private double sumMinutes;
+    
+    public void record(double minutes) {
+        int bucket = (int) Math.min(MAX_MINUTES + 1, Math.max(0, Math.round(minutes)));
+        counts[bucket]++;
+        totalCount++;
+        sumMinutes += Math.max(0, minutes);
+    }
+    
+    public void merge(WaitTimeHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sumMinutes += other.sumMinutes;
+    }
+    
+    public long getCount() {
+        return totalCount;
+    }
+    
+    public double getMean() {
+        return totalCount == 0 ? 0.0 : sumMinutes / totalCount;
+    }
+    
+    // Smallest minute value at or below which the given fraction of samples fall
+    public int getPercentile(double fraction) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(fraction * totalCount);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(1, rank)) {
+                return i;
+            }
+        }
+        return MAX_MINUTES + 1;
+    }
+    
+    public WaitTimeHistogram copy() {
+        WaitTimeHistogram copy = new WaitTimeHistogram();
+        copy.merge(this);
+        return copy;
+    }
+    
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES * counts.length + Double.BYTES);
+        for (long count : counts) {
+            buffer.putLong(count);
+        }
+        buffer.putDouble(sumMinutes);
+        return buffer.array();
+    }
+    
+    public static WaitTimeHistogram fromBytes(byte[] bytes) {
+        WaitTimeHistogram histogram = new WaitTimeHistogram();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        for (int i = 0; i < histogram.counts.length; i++) {
+            histogram.counts[i] = buffer.getLong();
+            histogram.totalCount += histogram.counts[i];
+        }
+        histogram.sumMinutes = buffer.getDouble();
+        return histogram;
+    }
+}
@@ -0,0 +1,145 @@
+package com.hotelmanagement.tableservice.service;
+
+import com.hotelmanagement.tableservice.entity.TableBooking;
+import com.hotelmanagement.tableservice.entity.WaitTimeRollup;
+import com.hotelmanagement.tableservice.event.BookingStatusChangedEvent;
+import com.hotelmanagement.tableservice.repository.WaitTimeRollupRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hourly histograms of seat waits (booking to seat) and table turns (seat to checkout),
+ * filled as bookings are seated and completed. Window statistics merge at most one histogram
+ * per hour in the window instead of scanning bookings. Dirty hours are flushed to
+ * wait_time_rollups periodically and the retention window is reloaded on startup.
+ */
+@Component
+public class WaitTimeRollups {
+    
+    public record Stats(long count, double mean, int p50, int p90, int p99) {
+    }
+    
+    @Autowired
+    private WaitTimeRollupRepository rollupRepository;
+    
+    @Value("${table-service.rollups.retention-days:35}")
+    private int retentionDays;
+    
+    private final Map<String, HourBucket> buckets = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void load() {
+        for (WaitTimeRollup rollup : rollupRepository.findByHourStartGreaterThanEqual(retentionStart())) {
+            HourBucket bucket = new HourBucket(rollup.getMetric(), rollup.getHourStart());
+            bucket.histogram.merge(WaitTimeHistogram.fromBytes(rollup.getHistogram()));
+            buckets.put(rollup.getId(), bucket);
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        if (event.previousStatus() == event.status()) {
+            return;
+        }
+        if (event.status() == TableBooking.BookingStatus.SEATED && event.bookingTime() != null && event.actualSeatTime() != null) {
+            record(WaitTimeRollup.Metric.SEAT_WAIT, event.actualSeatTime(), minutesBetween(event.bookingTime(), event.actualSeatTime()));
+        }
+        if (event.status() == TableBooking.BookingStatus.COMPLETED && event.actualSeatTime() != null && event.checkoutTime() != null) {
+            record(WaitTimeRollup.Metric.TABLE_TURN, event.checkoutTime(), minutesBetween(event.actualSeatTime(), event.checkoutTime()));
+        }
+    }
+    
+    public void record(WaitTimeRollup.Metric metric, LocalDateTime at, double minutes) {
+        LocalDateTime hour = at.truncatedTo(ChronoUnit.HOURS);
+        HourBucket bucket = buckets.computeIfAbsent(WaitTimeRollup.idFor(metric, hour), id -> new HourBucket(metric, hour));
+        synchronized (bucket) {
+            bucket.histogram.record(minutes);
+            bucket.dirty = true;
+        }
+    }
+    
+    // Merges the hourly histograms covering the last windowHours hours, including the current one
+    public Stats summarize(WaitTimeRollup.Metric metric, int windowHours) {
+        WaitTimeHistogram merged = new WaitTimeHistogram();
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        for (int i = 0; i < windowHours; i++) {
+            HourBucket bucket = buckets.get(WaitTimeRollup.idFor(metric, hour.minusHours(i)));
+            if (bucket != null) {
+                synchronized (bucket) {
+                    merged.merge(bucket.histogram);
+                }
+            }
+        }
+        return new Stats(merged.getCount(), merged.getMean(),
+                merged.getPercentile(0.50), merged.getPercentile(0.90), merged.getPercentile(0.99));
+    }
+    
+    public int getMaxWindowHours() {
+        return retentionDays * 24;
+    }
+    
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${table-service.rollups.flush-interval-ms:60000}",
+               initialDelayString = "${table-service.rollups.flush-interval-ms:60000}")
+    public void flush() {
+        List<WaitTimeRollup> dirty = new ArrayList<>();
+        List<HourBucket> flushed = new ArrayList<>();
+        for (HourBucket bucket : buckets.values()) {
+            synchronized (bucket) {
+                if (bucket.dirty) {
+                    dirty.add(new WaitTimeRollup(bucket.metric, bucket.hour, bucket.histogram.getCount(), bucket.histogram.toBytes()));
+                    flushed.add(bucket);
+                    bucket.dirty = false;
+                }
+            }
+        }
+        if (!dirty.isEmpty()) {
+            try {
+                rollupRepository.saveAll(dirty);
+            } catch (RuntimeException e) {
+                // Cleared before the save so records made meanwhile stay dirty; a failed save puts the rest back
+                for (HourBucket bucket : flushed) {
+                    synchronized (bucket) {
+                        bucket.dirty = true;
+                    }
+                }
+                throw e;
+            }
+        }
+        LocalDateTime retentionStart = retentionStart();
+        buckets.values().removeIf(bucket -> bucket.hour.isBefore(retentionStart));
+    }
+    
+    private LocalDateTime retentionStart() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusDays(retentionDays);
+    }
+    
+    private static double minutesBetween(LocalDateTime from, LocalDateTime to) {
+        return Duration.between(from, to).toSeconds() / 60.0;
+    }
+    
+    private static final class HourBucket {
+        private final WaitTimeRollup.Metric metric;
+        private final LocalDateTime hour;
+        private final WaitTimeHistogram histogram = new WaitTimeHistogram();
+        private boolean dirty;
+        
+        private HourBucket(WaitTimeRollup.Metric metric, LocalDateTime hour) {
+            this.metric = metric;
+            this.hour = hour;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+-- Table service schema as Hibernate's ddl-auto=update created it before Flyway was introduced.
+-- Existing databases are baselined at this version, so it must not change; additions go in later migrations.
+
+CREATE TABLE restaurant_tables (
+    id bigint NOT NULL AUTO_INCREMENT,
+    capacity integer NOT NULL,
+    created_at datetime(6) NOT NULL,
+    location_description varchar(255),
+    status enum ('AVAILABLE','OCCUPIED','OUT_OF_ORDER','RESERVED') NOT NULL,
+    table_number integer NOT NULL,
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_restaurant_tables_table_number UNIQUE (table_number)
+) ENGINE=InnoDB;
+
+CREATE TABLE table_bookings (
+    id bigint NOT NULL AUTO_INCREMENT,
+    actual_seat_time datetime(6),
+    booking_time datetime(6) NOT NULL,
+    checkout_time datetime(6),
+    created_at datetime(6) NOT NULL,
+    customer_name varchar(255) NOT NULL,
+    customer_phone varchar(255) NOT NULL,
+    estimated_wait_time integer,
+    party_size integer NOT NULL,
+    special_requests varchar(255),
+    status enum ('CANCELLED','COMPLETED','SEATED','WAITING') NOT NULL,
+    updated_at datetime(6),
+    table_id bigint,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_table_bookings_table FOREIGN KEY (table_id) REFERENCES restaurant_tables (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,54 @@
+-- Optimistic-lock versions, pooled id sequences, the booking archive and the wait-time rollups
+
+ALTER TABLE restaurant_tables ADD COLUMN version bigint DEFAULT 0 NOT NULL;
+
+ALTER TABLE table_bookings ADD COLUMN version bigint DEFAULT 0 NOT NULL;
+
+-- Ids now come from the sequence tables; the referenced columns can only lose AUTO_INCREMENT with checks off
+SET FOREIGN_KEY_CHECKS = 0;
+ALTER TABLE restaurant_tables MODIFY id bigint NOT NULL;
+ALTER TABLE table_bookings MODIFY id bigint NOT NULL;
+SET FOREIGN_KEY_CHECKS = 1;
+
+-- The pooled optimizer hands out ids (next_val - 49) .. next_val, so start each sequence one
+-- allocation block past the highest existing id
+CREATE TABLE restaurant_tables_seq (
+    next_val bigint
+) ENGINE=InnoDB;
+
+INSERT INTO restaurant_tables_seq SELECT COALESCE(MAX(id), 0) + 50 FROM restaurant_tables;
+
+CREATE TABLE table_bookings_seq (
+    next_val bigint
+) ENGINE=InnoDB;
+
+INSERT INTO table_bookings_seq SELECT COALESCE(MAX(id), 0) + 50 FROM table_bookings;
+
+CREATE TABLE table_bookings_archive (
+    id bigint NOT NULL,
+    actual_seat_time datetime(6),
+    archived_at datetime(6) NOT NULL,
+    booking_time datetime(6) NOT NULL,
+    checkout_time datetime(6),
+    created_at datetime(6) NOT NULL,
+    customer_name varchar(255) NOT NULL,
+    customer_phone varchar(255) NOT NULL,
+    estimated_wait_time integer,
+    party_size integer NOT NULL,
+    special_requests varchar(255),
+    status enum ('CANCELLED','COMPLETED','SEATED','WAITING') NOT NULL,
+    table_id bigint,
+    table_number integer,
+    updated_at datetime(6),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE wait_time_rollups (
+    id varchar(255) NOT NULL,
+    histogram varbinary(4096) NOT NULL,
+    hour_start datetime(6) NOT NULL,
+    metric enum ('SEAT_WAIT','TABLE_TURN') NOT NULL,
+    sample_count bigint NOT NULL,
+    updated_at datetime(6),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,25 @@
+-- Indexes for the repository queries; each comment names the queries it serves
+
+-- findWaitingBookingsOrderByTime, countWaitingBookings, findByStatus, status-filtered keyset listing,
+-- findIdsToArchive (status IN ... AND booking_time < cutoff)
+CREATE INDEX idx_table_bookings_status_time ON table_bookings (status, booking_time, id);
+
+-- Unfiltered keyset listing and export on (booking_time, id), findBookingsBetweenTimes
+CREATE INDEX idx_table_bookings_time ON table_bookings (booking_time, id);
+
+-- findByCustomerPhone
+CREATE INDEX idx_table_bookings_customer_phone ON table_bookings (customer_phone);
+
+-- findSeatedBookingsByTableId (also serves the table_id foreign key)
+CREATE INDEX idx_table_bookings_table_status ON table_bookings (table_id, status);
+
+-- findByStatus, countByStatus, findAvailableTablesByMinCapacity (status = ? AND capacity >= ? ORDER BY capacity)
+CREATE INDEX idx_restaurant_tables_status_capacity ON restaurant_tables (status, capacity);
+
+-- Archive: keyset listing/export, status-filtered listing, lookup by phone
+CREATE INDEX idx_table_bookings_archive_time ON table_bookings_archive (booking_time, id);
+CREATE INDEX idx_table_bookings_archive_status_time ON table_bookings_archive (status, booking_time, id);
+CREATE INDEX idx_table_bookings_archive_customer_phone ON table_bookings_archive (customer_phone);
+
+-- findByHourStartGreaterThanEqual (rollup reload on startup)
+CREATE INDEX idx_wait_time_rollups_hour_start ON wait_time_rollups (hour_start);
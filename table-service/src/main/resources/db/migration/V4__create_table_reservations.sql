@@ -0,0 +1,30 @@
+-- Timed reservations held against a table for [start_time, start_time + duration_minutes)
+
+CREATE TABLE table_reservations (
+    id bigint NOT NULL,
+    table_id bigint NOT NULL,
+    customer_name varchar(255) NOT NULL,
+    customer_phone varchar(255) NOT NULL,
+    party_size integer NOT NULL,
+    start_time datetime(6) NOT NULL,
+    duration_minutes integer NOT NULL,
+    status enum ('CANCELLED','CONFIRMED') NOT NULL,
+    special_requests varchar(255),
+    version bigint DEFAULT 0 NOT NULL,
+    created_at datetime(6) NOT NULL,
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_table_reservations_table FOREIGN KEY (table_id) REFERENCES restaurant_tables (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE table_reservations_seq (
+    next_val bigint
+) ENGINE=InnoDB;
+
+INSERT INTO table_reservations_seq VALUES (1);
+
+-- findByStatusAndStartTimeGreaterThanEqual (index load on startup)
+CREATE INDEX idx_table_reservations_status_start ON table_reservations (status, start_time);
+
+-- findByStartTimeBetweenOrderByStartTimeAsc
+CREATE INDEX idx_table_reservations_start ON table_reservations (start_time);
@@ -0,0 +1,23 @@
+-- Adds the NO_SHOW booking status and rewrites stored phone numbers to the canonical form
+-- produced by PhoneNumbers.normalize (digits only, leading '+' kept)
+
+ALTER TABLE table_bookings
+    MODIFY status enum ('CANCELLED','COMPLETED','NO_SHOW','SEATED','WAITING') NOT NULL;
+
+ALTER TABLE table_bookings_archive
+    MODIFY status enum ('CANCELLED','COMPLETED','NO_SHOW','SEATED','WAITING') NOT NULL;
+
+UPDATE table_bookings
+SET customer_phone = CONCAT(IF(TRIM(customer_phone) LIKE '+%', '+', ''), REGEXP_REPLACE(customer_phone, '[^0-9]', ''))
+WHERE customer_phone REGEXP '[^0-9+]' OR customer_phone LIKE '_%+%';
+
+UPDATE table_bookings_archive
+SET customer_phone = CONCAT(IF(TRIM(customer_phone) LIKE '+%', '+', ''), REGEXP_REPLACE(customer_phone, '[^0-9]', ''))
+WHERE customer_phone REGEXP '[^0-9+]' OR customer_phone LIKE '_%+%';
+
+UPDATE table_reservations
+SET customer_phone = CONCAT(IF(TRIM(customer_phone) LIKE '+%', '+', ''), REGEXP_REPLACE(customer_phone, '[^0-9]', ''))
+WHERE customer_phone REGEXP '[^0-9+]' OR customer_phone LIKE '_%+%';
+
+-- Customer lookups on reservations (bookings and the archive are indexed on customer_phone since V3)
+CREATE INDEX idx_table_reservations_customer_phone ON table_reservations (customer_phone);
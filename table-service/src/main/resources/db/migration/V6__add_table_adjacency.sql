@@ -0,0 +1,7 @@
+-- Table adjacency for pushing tables together, and the extra tables a seated party occupies
+
+ALTER TABLE restaurant_tables ADD COLUMN adjacent_table_numbers varchar(255);
+
+ALTER TABLE table_bookings ADD COLUMN joined_table_ids varchar(255);
+
+ALTER TABLE table_bookings_archive ADD COLUMN joined_table_ids varchar(255);
@@ -0,0 +1,14 @@
+-- Responses recorded for Idempotency-Key requests; status_code is NULL while the first request is in flight
+
+CREATE TABLE idempotency_keys (
+    idempotency_key varchar(255) NOT NULL,
+    fingerprint varchar(255) NOT NULL,
+    status_code integer,
+    response_body mediumblob,
+    created_at datetime(6) NOT NULL,
+    expires_at datetime(6) NOT NULL,
+    PRIMARY KEY (idempotency_key)
+) ENGINE=InnoDB;
+
+-- deleteExpired (scheduled purge)
+CREATE INDEX idx_idempotency_keys_expires ON idempotency_keys (expires_at);
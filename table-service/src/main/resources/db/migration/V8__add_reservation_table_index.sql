@@ -0,0 +1,4 @@
+-- findByTableIdAndStatusAndStartTimeBetween (reservation-holder check when seating). The leading
+-- table_id column also serves the foreign key, which lets the server drop its implicit index.
+
+CREATE INDEX idx_table_reservations_table_status_start ON table_reservations (table_id, status, start_time);
@@ -0,0 +1,43 @@
+package com.hotelmanagement.tableservice;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+/**
+ * One MariaDB server per test JVM, unpacked from the mariaDB4j artifact and started on a free
+ * port, so the migration and query-plan tests need no external database. It speaks the MySQL
+ * protocol and dialect the service runs against; tests connect with the production driver.
+ */
+final class EmbeddedMariaDb {
+    
+    private static DB db;
+    
+    private EmbeddedMariaDb() {
+    }
+    
+    // Creates the schema if needed; the URL carries the same driver flags as application.properties
+    static synchronized String url(String schema) {
+        try {
+            if (db == null) {
+                DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+                config.setPort(0);
+                // mariadbd refuses to start as root unless it is told to run as that user
+                config.addArg("--user=" + System.getProperty("user.name"));
+                db = DB.newEmbeddedDB(config.build());
+                db.start();
+            }
+            String server = "jdbc:mysql://localhost:" + db.getConfiguration().getPort() + "/";
+            try (Connection connection = DriverManager.getConnection(server, "root", "");
+                 Statement statement = connection.createStatement()) {
+                statement.execute("CREATE DATABASE IF NOT EXISTS " + schema);
+            }
+            return server + schema + "?rewriteBatchedStatements=true&useCursorFetch=true";
+        } catch (Exception e) {
+            throw new IllegalStateException("could not start the embedded database", e);
+        }
+    }
+}
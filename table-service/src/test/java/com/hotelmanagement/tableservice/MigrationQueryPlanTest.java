@@ -0,0 +1,224 @@
+package com.hotelmanagement.tableservice;
+
+import com.hotelmanagement.tableservice.entity.RestaurantTable;
+import com.hotelmanagement.tableservice.entity.TableBooking;
+import com.hotelmanagement.tableservice.entity.TableReservation;
+import com.hotelmanagement.tableservice.repository.ArchivedBookingRepository;
+import com.hotelmanagement.tableservice.repository.BookingCursor;
+import com.hotelmanagement.tableservice.repository.BookingFilter;
+import com.hotelmanagement.tableservice.repository.IdempotencyRecordRepository;
+import com.hotelmanagement.tableservice.repository.RestaurantTableRepository;
+import com.hotelmanagement.tableservice.repository.TableBookingRepository;
+import com.hotelmanagement.tableservice.repository.TableReservationRepository;
+import com.hotelmanagement.tableservice.repository.WaitTimeRollupRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the hot repository queries against a migrated, seeded embedded database and asserts that
+ * the optimizer reads each through the index the migrations add for it. The statements are
+ * captured from the server's general log as the driver sent them, so a change to a query's shape
+ * (JPQL, derived query or Criteria) is tested as it will run, not as a hand-written copy.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MigrationQueryPlanTest {
+    
+    private static final LocalDateTime NOW = LocalDateTime.now().withNano(0);
+    
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> EmbeddedMariaDb.url("table_service_plans"));
+        registry.add("spring.datasource.username", () -> "root");
+        registry.add("spring.datasource.password", () -> "");
+    }
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private TableBookingRepository bookingRepository;
+    
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+    
+    @Autowired
+    private RestaurantTableRepository tableRepository;
+    
+    @Autowired
+    private TableReservationRepository reservationRepository;
+    
+    @Autowired
+    private WaitTimeRollupRepository rollupRepository;
+    
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRepository;
+    
+    @BeforeAll
+    void seed() {
+        String[] tableStatuses = {"OCCUPIED", "OCCUPIED", "OCCUPIED", "RESERVED", "AVAILABLE", "OUT_OF_ORDER"};
+        jdbcTemplate.batchUpdate("INSERT INTO restaurant_tables (id, table_number, capacity, status, created_at) "
+                + "VALUES (?, ?, ?, ?, NOW())", rows(600, i -> new Object[] {i, i, 2 + i % 9, tableStatuses[i % 6]}));
+        jdbcTemplate.batchUpdate("INSERT INTO table_bookings (id, customer_name, customer_phone, party_size, booking_time, "
+                + "status, table_id, created_at) VALUES (?, 'Guest', ?, 2, ?, ?, ?, NOW())", rows(20000, i -> new Object[] {
+                        i, phone(i), at(NOW.minusDays(60).plusMinutes(i * 4L)), bookingStatus(i), 1 + i % 600}));
+        jdbcTemplate.batchUpdate("INSERT INTO table_bookings_archive (id, customer_name, customer_phone, party_size, "
+                + "booking_time, status, created_at, archived_at) VALUES (?, 'Guest', ?, 2, ?, 'COMPLETED', NOW(), NOW())",
+                rows(20000, i -> new Object[] {100000 + i, phone(i), at(NOW.minusDays(200).plusMinutes(i * 4L))}));
+        jdbcTemplate.batchUpdate("INSERT INTO table_reservations (id, table_id, customer_name, customer_phone, party_size, "
+                + "start_time, duration_minutes, status, created_at) VALUES (?, ?, 'Guest', ?, 2, ?, 90, ?, NOW())",
+                rows(10000, i -> new Object[] {i, 1 + i % 600, phone(i), at(NOW.minusDays(60).plusMinutes(i * 15L)),
+                        i % 3 == 0 ? "CANCELLED" : "CONFIRMED"}));
+        jdbcTemplate.batchUpdate("INSERT INTO wait_time_rollups (id, histogram, hour_start, metric, sample_count) "
+                + "VALUES (?, x'00', ?, 'SEAT_WAIT', 1)", rows(5000, i -> new Object[] {"SEAT_WAIT@" + i, at(NOW.minusHours(i))}));
+        jdbcTemplate.batchUpdate("INSERT INTO idempotency_keys (idempotency_key, fingerprint, created_at, expires_at) "
+                + "VALUES (?, 'f', NOW(), ?)", rows(5000, i -> new Object[] {"key-" + i, at(NOW.minusDays(40).plusMinutes(i * 15L))}));
+        jdbcTemplate.execute("ANALYZE TABLE restaurant_tables, table_bookings, table_bookings_archive, "
+                + "table_reservations, wait_time_rollups, idempotency_keys");
+    }
+    
+    @Test
+    void waitingQueueReadsTheStatusTimeIndexInOrder() {
+        assertUses("idx_table_bookings_status_time", false, () -> bookingRepository.findWaitingBookingViews());
+        assertUses("idx_table_bookings_status_time", false, () -> bookingRepository.findWaitingBookingsOrderByTime());
+        assertUses("idx_table_bookings_status_time", false, () -> bookingRepository.countWaitingBookings());
+    }
+    
+    @Test
+    void keysetListingReadsTheTimeIndexInOrder() {
+        BookingCursor after = new BookingCursor(NOW.minusDays(30), 9000L);
+        assertUses("idx_table_bookings_time", false,
+                () -> bookingRepository.findPage(new BookingFilter(null, null, null), after, true, 50));
+        assertUses("idx_table_bookings_time", false,
+                () -> bookingRepository.findPage(new BookingFilter(null, null, null), after, false, 50));
+        assertUses("idx_table_bookings_status_time", false,
+                () -> bookingRepository.findPage(new BookingFilter(TableBooking.BookingStatus.CANCELLED, null, null), after, true, 50));
+        assertUses("idx_table_bookings_archive_time", false,
+                () -> archivedBookingRepository.findPage(new BookingFilter(null, null, null),
+                        new BookingCursor(NOW.minusDays(150), 110000L), true, 50));
+    }
+    
+    @Test
+    void archiverAndMaintenanceSweepsReadTheStatusTimeIndex() {
+        assertUses("idx_table_bookings_status_time", true, () -> bookingRepository.findIdsToArchive(
+                List.of(TableBooking.BookingStatus.COMPLETED, TableBooking.BookingStatus.CANCELLED),
+                NOW.minusDays(55), PageRequest.of(0, 500)));
+        assertUses("idx_table_bookings_status_time", true, () -> bookingRepository.findIdsByStatusBookedBefore(
+                TableBooking.BookingStatus.WAITING, NOW.minusDays(1), PageRequest.of(0, 500)));
+        assertUses("PRIMARY", false, () -> bookingRepository.findViewsByIdInAndUpdatedAt(List.of(1L, 2L, 3L), NOW));
+        assertUses("PRIMARY", false, () -> inRolledBackTransaction(() -> bookingRepository.updateStatusByIdIn(
+                List.of(1L, 2L, 3L), TableBooking.BookingStatus.WAITING, TableBooking.BookingStatus.NO_SHOW, NOW)));
+    }
+    
+    @Test
+    void seatingLookupsUseTheirIndexes() {
+        assertUses("idx_table_bookings_table_status", false, () -> bookingRepository.findSeatedBookingsByTableId(7L));
+        assertUses("idx_table_bookings_customer_phone", false, () -> bookingRepository.findByCustomerPhone(phone(42)));
+        assertUses("idx_restaurant_tables_status_capacity", false, () -> tableRepository.findAvailableTablesByMinCapacity(9));
+        assertUses("idx_restaurant_tables_status_capacity", false,
+                () -> tableRepository.countByStatus(RestaurantTable.TableStatus.AVAILABLE));
+        assertUses("idx_restaurant_tables_status_capacity", false,
+                () -> tableRepository.findIdsByStatus(RestaurantTable.TableStatus.RESERVED));
+    }
+    
+    @Test
+    void reservationQueriesUseTheirIndexes() {
+        assertUses("idx_table_reservations_status_start", false, () -> reservationRepository
+                .findByStatusAndStartTimeGreaterThanEqual(TableReservation.ReservationStatus.CONFIRMED, NOW.plusDays(40)));
+        assertUses("idx_table_reservations_start", false,
+                () -> reservationRepository.findByStartTimeBetweenOrderByStartTimeAsc(NOW, NOW.plusDays(1)));
+        assertUses("idx_table_reservations_table_status_start", false, () -> reservationRepository.findByTableIdAndStatusAndStartTimeBetween(
+                7L, TableReservation.ReservationStatus.CONFIRMED, NOW.minusHours(6), NOW.plusHours(2)));
+    }
+    
+    @Test
+    void startupAndPurgeQueriesUseTheirIndexes() {
+        assertUses("idx_wait_time_rollups_hour_start", false,
+                () -> rollupRepository.findByHourStartGreaterThanEqual(NOW.minusDays(7)));
+        assertUses("idx_idempotency_keys_expires", false,
+                () -> inRolledBackTransaction(() -> idempotencyRepository.deleteAllExpired(NOW.minusDays(35))));
+    }
+    
+    private void inRolledBackTransaction(Runnable call) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            call.run();
+            tx.setRollbackOnly();
+        });
+    }
+    
+    // The query's first plan row must read through the index; sorted reads must not need a filesort
+    private void assertUses(String index, boolean sortAllowed, Runnable call) {
+        String sql = capture(call);
+        Map<String, Object> plan = jdbcTemplate.queryForList("EXPLAIN " + sql).get(0);
+        assertThat(plan.get("key")).as(sql).isEqualTo(index);
+        if (!sortAllowed) {
+            assertThat(String.valueOf(plan.get("Extra"))).as(sql).doesNotContain("filesort");
+        }
+    }
+    
+    private String capture(Runnable call) {
+        jdbcTemplate.execute("SET GLOBAL general_log = 0");
+        jdbcTemplate.execute("TRUNCATE TABLE mysql.general_log");
+        jdbcTemplate.execute("SET GLOBAL log_output = 'TABLE'");
+        jdbcTemplate.execute("SET GLOBAL general_log = 1");
+        try {
+            call.run();
+        } finally {
+            jdbcTemplate.execute("SET GLOBAL general_log = 0");
+        }
+        List<String> statements = new ArrayList<>();
+        for (String statement : jdbcTemplate.queryForList("SELECT CONVERT(argument USING utf8mb4) FROM mysql.general_log "
+                + "WHERE command_type IN ('Query', 'Execute')", String.class)) {
+            String verb = statement.stripLeading().toLowerCase(Locale.ROOT);
+            if ((verb.startsWith("select") || verb.startsWith("update") || verb.startsWith("delete"))
+                    && !verb.contains("general_log")) {
+                statements.add(statement);
+            }
+        }
+        assertThat(statements).hasSize(1);
+        return statements.get(0);
+    }
+    
+    private static List<Object[]> rows(int count, java.util.function.IntFunction<Object[]> row) {
+        return IntStream.rangeClosed(1, count).mapToObj(row).toList();
+    }
+    
+    private static String phone(int i) {
+        return "55501" + String.format("%05d", i % 5000);
+    }
+    
+    private static String bookingStatus(int i) {
+        return i % 200 == 0 ? "WAITING" : i % 50 == 0 ? "SEATED" : i % 7 == 0 ? "CANCELLED" : "COMPLETED";
+    }
+    
+    private static Timestamp at(LocalDateTime time) {
+        return Timestamp.valueOf(time);
+    }
+}
@@ -0,0 +1,60 @@
+package com.hotelmanagement.tableservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+    
+    private static final String[] RULES = {
+            "POST /api/tables/book=customerPhone:5:2",
+            "POST /api/tables/book=ip:2:1"
+    };
+    
+    @Test
+    void requestRejectedByALaterRuleIsNotChargedByEarlierOnes() {
+        RateLimiter limiter = new RateLimiter(true, 100, RULES);
+        List<RateLimiter.Rule> rules = limiter.matchingRules("POST", "/api/tables/book");
+        List<String> keys = List.of("phone:5550100", "ip:10.0.0.1");
+        
+        assertThat(limiter.tryAcquire(rules, keys)).isZero();
+        assertThat(limiter.tryAcquire(rules, keys)).isZero();
+        // The ip bucket is empty from here on; the phone bucket must keep its remaining three tokens
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire(rules, keys)).isPositive();
+        }
+        
+        List<RateLimiter.Rule> phoneOnly = List.of(rules.get(0));
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(phoneOnly, List.of("phone:5550100"))).isZero();
+        }
+        assertThat(limiter.tryAcquire(phoneOnly, List.of("phone:5550100"))).isPositive();
+    }
+    
+    @Test
+    void statsCountAPartlyPassedRequestOnlyAsRejected() {
+        RateLimiter limiter = new RateLimiter(true, 100, RULES);
+        List<RateLimiter.Rule> rules = limiter.matchingRules("POST", "/api/tables/book");
+        List<String> keys = List.of("phone:5550100", "ip:10.0.0.1");
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(rules, keys);
+        }
+        
+        List<RateLimiter.RuleStats> stats = limiter.getStats();
+        assertThat(stats.get(0).allowed()).isEqualTo(2);
+        assertThat(stats.get(0).rejected()).isZero();
+        assertThat(stats.get(1).allowed()).isEqualTo(2);
+        assertThat(stats.get(1).rejected()).isEqualTo(1);
+    }
+    
+    @Test
+    void rulesWithoutRefillOrCapacityAreRejectedAtStartup() {
+        assertThatThrownBy(() -> new RateLimiter(true, 100, new String[] {"GET /api/tables=ip:10:0"}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RateLimiter(true, 100, new String[] {"GET /api/tables=ip:0:10"}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
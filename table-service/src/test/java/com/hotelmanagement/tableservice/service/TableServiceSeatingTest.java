@@ -0,0 +1,305 @@
+package com.hotelmanagement.tableservice.service;
+
+import com.hotelmanagement.tableservice.entity.RestaurantTable;
+import com.hotelmanagement.tableservice.entity.TableBooking;
+import com.hotelmanagement.tableservice.entity.TableReservation;
+import com.hotelmanagement.tableservice.event.ReservationChangedEvent;
+import com.hotelmanagement.tableservice.event.TableStatusChangedEvent;
+import com.hotelmanagement.tableservice.repository.RestaurantTableRepository;
+import com.hotelmanagement.tableservice.repository.TableBookingRepository;
+import com.hotelmanagement.tableservice.repository.TableReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Seating paths against an in-memory table and booking store. The race tests hammer them from
+ * many threads, then check that the floor, the bookings and the allocator's free pool still agree.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TableServiceSeatingTest {
+    
+    private static final int TABLE_COUNT = 8;
+    private static final int THREADS = 8;
+    private static final int BOOKINGS_PER_THREAD = 1000;
+    
+    @Mock(stubOnly = true)
+    private RestaurantTableRepository tableRepository;
+    
+    @Mock(stubOnly = true)
+    private TableBookingRepository bookingRepository;
+    
+    @Mock(stubOnly = true)
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock(stubOnly = true)
+    private TransactionTemplate transactionTemplate;
+    
+    @Mock(stubOnly = true)
+    private WaitTimeEstimator waitTimeEstimator;
+    
+    @Mock(stubOnly = true)
+    private TableReservationRepository reservationRepository;
+    
+    private final Map<Long, RestaurantTable> tables = new ConcurrentHashMap<>();
+    private final Map<Long, TableBooking> bookings = new ConcurrentHashMap<>();
+    private final AtomicLong bookingIds = new AtomicLong();
+    
+    private SeatingAllocator seatingAllocator;
+    private TableCombinationIndex tableCombinations;
+    private ReservationIndex reservationIndex;
+    private TableService tableService;
+    
+    @BeforeEach
+    void setUp() {
+        seatingAllocator = new SeatingAllocator();
+        tableCombinations = new TableCombinationIndex();
+        ReflectionTestUtils.setField(tableCombinations, "tableRepository", tableRepository);
+        ReflectionTestUtils.setField(tableCombinations, "seatingAllocator", seatingAllocator);
+        ReflectionTestUtils.setField(tableCombinations, "maxTables", 3);
+        tableService = new TableService();
+        ReflectionTestUtils.setField(tableService, "tableRepository", tableRepository);
+        ReflectionTestUtils.setField(tableService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(tableService, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(tableService, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(tableService, "seatingAllocator", seatingAllocator);
+        ReflectionTestUtils.setField(tableService, "tableCombinations", tableCombinations);
+        ReflectionTestUtils.setField(tableService, "tableLocks", new TableLockStripes());
+        reservationIndex = new ReservationIndex();
+        ReflectionTestUtils.setField(tableService, "reservationIndex", reservationIndex);
+        ReflectionTestUtils.setField(tableService, "waitTimeEstimator", waitTimeEstimator);
+        ReflectionTestUtils.setField(tableService, "reservationRepository", reservationRepository);
+        
+        for (long id = 1; id <= TABLE_COUNT; id++) {
+            RestaurantTable table = new RestaurantTable((int) id, 2 + (int) (id % 3) * 2, "Main hall");
+            table.setId(id);
+            table.setStatus(RestaurantTable.TableStatus.AVAILABLE);
+            // Tables stand in a row, each pushable against the next
+            table.setAdjacentTableNumbers(id < TABLE_COUNT ? String.valueOf(id + 1) : null);
+            tables.put(id, table);
+            seatingAllocator.update(id, table.getCapacity(), table.getStatus());
+        }
+        
+        when(waitTimeEstimator.getExpectedTurnMinutes(anyInt(), anyInt())).thenReturn(60.0);
+        when(tableRepository.findAll()).thenAnswer(call -> new ArrayList<>(tables.values()));
+        when(tableRepository.findById(anyLong())).thenAnswer(call -> Optional.ofNullable(tables.get(call.<Long>getArgument(0))));
+        when(tableRepository.findAllById(anyIterable())).thenAnswer(call -> {
+            List<RestaurantTable> found = new ArrayList<>();
+            for (Long id : call.<Iterable<Long>>getArgument(0)) {
+                Optional.ofNullable(tables.get(id)).ifPresent(found::add);
+            }
+            return found;
+        });
+        when(tableRepository.save(any(RestaurantTable.class))).thenAnswer(call -> call.getArgument(0));
+        when(bookingRepository.findById(anyLong())).thenAnswer(call -> Optional.ofNullable(bookings.get(call.<Long>getArgument(0))));
+        when(bookingRepository.save(any(TableBooking.class))).thenAnswer(call -> call.getArgument(0));
+        when(transactionTemplate.execute(any())).thenAnswer(call -> call.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        // Status events reach the allocator synchronously, as the after-commit listener would under the table lock
+        doAnswer(call -> {
+            if (call.getArgument(0) instanceof TableStatusChangedEvent event) {
+                seatingAllocator.onTableStatusChanged(event);
+            }
+            return null;
+        }).when(eventPublisher).publishEvent(any(Object.class));
+        tableCombinations.load();
+    }
+    
+    @Test
+    void autoSeatRacingHostsNeverDoubleSeatsOrLeaksOccupiedTables() throws Exception {
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            List<Long> seated = new ArrayList<>();
+            for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                Long bookingId = newWaitingBooking(1 + random.nextInt(10));
+                try {
+                    TableBooking booking = random.nextBoolean()
+                            ? tableService.autoSeatCustomer(bookingId)
+                            : tableService.seatCustomer(bookingId, 1 + (long) random.nextInt(TABLE_COUNT));
+                    if (booking != null) {
+                        seated.add(bookingId);
+                    }
+                } catch (SeatingConflictException e) {
+                    // Lost the table to another thread; the booking stays in the queue
+                }
+                if (!seated.isEmpty() && random.nextInt(3) == 0) {
+                    tableService.completeBooking(seated.remove(random.nextInt(seated.size())));
+                }
+            }
+        });
+        
+        assertFloorConsistent();
+    }
+    
+    @Test
+    void autoSeatConflictLeavesTakenTableOutOfThePool() {
+        // Another instance seated table 1; this allocator has not heard about it yet
+        for (long id = 2; id <= TABLE_COUNT; id++) {
+            tables.get(id).setStatus(RestaurantTable.TableStatus.OUT_OF_ORDER);
+            seatingAllocator.update(id, tables.get(id).getCapacity(), RestaurantTable.TableStatus.OUT_OF_ORDER);
+        }
+        tables.get(1L).setStatus(RestaurantTable.TableStatus.OCCUPIED);
+        Long bookingId = newWaitingBooking(1);
+        
+        assertThatThrownBy(() -> tableService.autoSeatCustomer(bookingId)).isInstanceOf(SeatingConflictException.class);
+        
+        assertThat(seatingAllocator.claimBestFit(1, tableId -> true)).isEmpty();
+        assertThat(bookings.get(bookingId).getStatus()).isEqualTo(TableBooking.BookingStatus.WAITING);
+    }
+    
+    @Test
+    void autoSeatSkipsTablesReservedBeforeThePartyWouldLeave() {
+        // Table 3 is the best fit for two, but is reserved from half an hour from now
+        TableReservation reservation = new TableReservation();
+        reservation.setId(1L);
+        reservation.setTableId(3L);
+        reservation.setCustomerPhone("5550199");
+        reservation.setPartySize(2);
+        reservation.setStartTime(LocalDateTime.now().plusMinutes(30));
+        reservation.setDurationMinutes(90);
+        reservation.setStatus(TableReservation.ReservationStatus.CONFIRMED);
+        reservationIndex.onReservationChanged(ReservationChangedEvent.of(reservation));
+        when(reservationRepository.findByTableIdAndStatusAndStartTimeBetween(eq(3L), any(), any(), any()))
+                .thenReturn(List.of(reservation));
+        
+        TableBooking seated = tableService.autoSeatCustomer(newWaitingBooking(2));
+        
+        assertThat(seated.getTable().getId()).isNotEqualTo(3L);
+        assertThat(tables.get(3L).getStatus()).isEqualTo(RestaurantTable.TableStatus.AVAILABLE);
+        assertThatThrownBy(() -> tableService.seatCustomer(newWaitingBooking(2), 3L))
+                .isInstanceOf(SeatingConflictException.class);
+        
+        // The party holding the reservation may still be seated at it by hand
+        Long holder = newWaitingBooking(2);
+        bookings.get(holder).setCustomerPhone("5550199");
+        assertThat(tableService.seatCustomer(holder, 3L).getStatus()).isEqualTo(TableBooking.BookingStatus.SEATED);
+    }
+    
+    @Test
+    void cancelRacingCompleteFinishesEachBookingExactlyOnce() throws Exception {
+        List<Long> seated = new ArrayList<>();
+        for (long tableId = 1; tableId <= TABLE_COUNT; tableId++) {
+            Long bookingId = newWaitingBooking(1);
+            tableService.seatCustomer(bookingId, tableId);
+            seated.add(bookingId);
+        }
+        Map<Long, Integer> finished = new ConcurrentHashMap<>();
+        
+        runConcurrently(() -> {
+            for (Long bookingId : seated) {
+                try {
+                    boolean done = ThreadLocalRandom.current().nextBoolean()
+                            ? tableService.cancelBooking(bookingId)
+                            : tableService.completeBooking(bookingId) != null;
+                    if (done) {
+                        finished.merge(bookingId, 1, Integer::sum);
+                    }
+                } catch (SeatingConflictException e) {
+                    // Another thread already finished it
+                }
+            }
+        });
+        
+        assertThat(finished).hasSize(TABLE_COUNT).allSatisfy((bookingId, count) -> assertThat(count).isEqualTo(1));
+        assertThat(tables.values()).allMatch(table -> table.getStatus() == RestaurantTable.TableStatus.AVAILABLE);
+        assertFloorConsistent();
+    }
+    
+    private Long newWaitingBooking(int partySize) {
+        TableBooking booking = new TableBooking("Guest", "5550100", partySize, LocalDateTime.now());
+        booking.setId(bookingIds.incrementAndGet());
+        booking.setStatus(TableBooking.BookingStatus.WAITING);
+        bookings.put(booking.getId(), booking);
+        return booking.getId();
+    }
+    
+    private void runConcurrently(Runnable worker) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                worker.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+    
+    private void assertFloorConsistent() {
+        // Every occupied table belongs to exactly one seated booking, and vice versa
+        Map<Long, Long> bookingByTable = new ConcurrentHashMap<>();
+        for (TableBooking booking : bookings.values()) {
+            if (booking.getStatus() != TableBooking.BookingStatus.SEATED) {
+                continue;
+            }
+            List<Long> seatedAt = new ArrayList<>(List.of(booking.getTable().getId()));
+            if (booking.getJoinedTableIds() != null) {
+                for (String joined : booking.getJoinedTableIds().split(",")) {
+                    seatedAt.add(Long.valueOf(joined));
+                }
+            }
+            for (Long tableId : seatedAt) {
+                Long previous = bookingByTable.put(tableId, booking.getId());
+                assertThat(previous).as("second booking seated at table %s", tableId).isNull();
+            }
+        }
+        for (RestaurantTable table : tables.values()) {
+            assertThat(table.getStatus() == RestaurantTable.TableStatus.OCCUPIED)
+                    .as("table %s is %s", table.getId(), table.getStatus())
+                    .isEqualTo(bookingByTable.containsKey(table.getId()));
+        }
+        
+        // The allocator hands out exactly the tables the store has free
+        Set<Long> claimable = new HashSet<>();
+        for (Optional<Long> claimed = seatingAllocator.claimBestFit(1, tableId -> true); claimed.isPresent(); claimed = seatingAllocator.claimBestFit(1, tableId -> true)) {
+            claimable.add(claimed.get());
+        }
+        Set<Long> available = new HashSet<>();
+        for (RestaurantTable table : tables.values()) {
+            if (table.getStatus() == RestaurantTable.TableStatus.AVAILABLE) {
+                available.add(table.getId());
+            }
+        }
+        assertThat(claimable).isEqualTo(available);
+    }
+}
@@ -0,0 +1,16 @@
+-- User service schema as mapped by the JPA entities
+
+CREATE TABLE chefs (
+    id bigint NOT NULL AUTO_INCREMENT,
+    created_at datetime(6) NOT NULL,
+    email varchar(255) NOT NULL,
+    experience integer NOT NULL,
+    hire_date datetime(6) NOT NULL,
+    is_active bit NOT NULL,
+    name varchar(255) NOT NULL,
+    phone varchar(255) NOT NULL,
+    specialty varchar(255) NOT NULL,
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_chefs_email UNIQUE (email)
+) ENGINE=InnoDB;
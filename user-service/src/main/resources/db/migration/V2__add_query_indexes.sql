@@ -0,0 +1,10 @@
+-- Indexes for the repository queries; each comment names the queries it serves
+
+-- findByIsActiveTrue, findByIsActiveFalse, findActiveChefsByHireDate (is_active = true ORDER BY hire_date DESC)
+CREATE INDEX idx_chefs_active_hire_date ON chefs (is_active, hire_date);
+
+-- findActiveChefsByMinExperience (experience >= ? AND is_active = true)
+CREATE INDEX idx_chefs_active_experience ON chefs (is_active, experience);
+
+-- findBySpecialty
+CREATE INDEX idx_chefs_specialty ON chefs (specialty);
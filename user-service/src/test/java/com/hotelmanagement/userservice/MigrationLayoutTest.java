@@ -0,0 +1,115 @@
+package com.hotelmanagement.userservice;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the migration scripts. V1 must stay the schema that databases created by
+ * ddl-auto=update are baselined at, no script may touch a table an earlier one has not created,
+ * and such a database must upgrade cleanly through every later script.
+ */
+class MigrationLayoutTest {
+    
+    private static final Pattern MIGRATION_NAME = Pattern.compile("V(\\d+)__\\w+\\.sql");
+    private static final Pattern CREATED_TABLE = Pattern.compile("CREATE TABLE (\\w+)");
+    private static final Pattern REFERENCED_TABLE = Pattern.compile(
+            "(?:ALTER TABLE|UPDATE|INSERT INTO|FROM|REFERENCES|CREATE INDEX \\w+ ON) (\\w+)");
+    
+    @Test
+    void migrationVersionsAreContiguousFromOne() throws Exception {
+        TreeMap<Integer, String> migrations = migrations();
+        assertThat(migrations.keySet()).containsExactlyElementsOf(
+                Stream.iterate(1, v -> v + 1).limit(migrations.size()).toList());
+    }
+    
+    @Test
+    void baselineCreatesOnlyThePreFlywaySchema() throws Exception {
+        String baseline = migrations().get(1);
+        Set<String> created = new HashSet<>();
+        Matcher matcher = CREATED_TABLE.matcher(baseline);
+        while (matcher.find()) {
+            created.add(matcher.group(1));
+        }
+        assertThat(created).containsExactlyInAnyOrder("chefs");
+        assertThat(baseline).contains("AUTO_INCREMENT");
+    }
+    
+    @Test
+    void everyScriptOnlyTouchesTablesCreatedBeforeIt() throws Exception {
+        Set<String> created = new HashSet<>();
+        migrations().forEach((version, sql) -> {
+            String statements = sql.replaceAll("--[^\\n]*", "");
+            Matcher creates = CREATED_TABLE.matcher(statements);
+            while (creates.find()) {
+                created.add(creates.group(1));
+            }
+            Matcher references = REFERENCED_TABLE.matcher(statements);
+            while (references.find()) {
+                assertThat(created).as("V%d references %s", version, references.group(1)).contains(references.group(1));
+            }
+        });
+    }
+    
+    @Test
+    void databaseCreatedByDdlAutoUpgradesFromTheBaseline() throws Exception {
+        String url = EmbeddedMariaDb.url("user_service_upgrade");
+        try (Connection connection = DriverManager.getConnection(url, "root", "");
+             Statement statement = connection.createStatement()) {
+            for (String ddl : migrations().get(1).replaceAll("--[^\\n]*", "").split(";")) {
+                if (!ddl.isBlank()) {
+                    statement.execute(ddl);
+                }
+            }
+            statement.execute("INSERT INTO chefs (id, name, email, phone, specialty, experience, hire_date, is_active, "
+                    + "created_at) VALUES (7, 'Ana', 'ana@example.com', '555-0100', 'Pastry', 6, NOW(), 1, NOW())");
+            
+            MigrateResult result = Flyway.configure().dataSource(url, "root", "")
+                    .baselineOnMigrate(true).baselineVersion("1").load().migrate();
+            assertThat(result.migrationsExecuted).isEqualTo(migrations().size() - 1);
+            assertThat(queryLong(statement, "SELECT COUNT(*) FROM chefs WHERE is_active = 1")).isOne();
+        }
+    }
+    
+    private static long queryLong(Statement statement, String sql) throws Exception {
+        try (ResultSet resultSet = statement.executeQuery(sql)) {
+            assertThat(resultSet.next()).isTrue();
+            return resultSet.getLong(1);
+        }
+    }
+    
+    private static TreeMap<Integer, String> migrations() throws IOException, URISyntaxException {
+        Path directory = Paths.get(Objects.requireNonNull(MigrationLayoutTest.class.getResource("/db/migration")).toURI());
+        TreeMap<Integer, String> scripts = new TreeMap<>();
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.toList();
+        }
+        for (Path file : files) {
+            Matcher name = MIGRATION_NAME.matcher(file.getFileName().toString());
+            assertThat(name.matches()).as(file.getFileName().toString()).isTrue();
+            assertThat(scripts.put(Integer.parseInt(name.group(1)), Files.readString(file))).isNull();
+        }
+        return scripts;
+    }
+}